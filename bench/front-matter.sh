@@ -0,0 +1,23 @@
+#!/bin/bash
+
+# Front Matter 解析基准测试
+#
+# 对比旧实现（逐行拼接 + 整篇 DOTALL 正则 + split）与 FrontMatterParser（字节缓冲区单遍扫描，
+# 大文件内存映射）在 4KB ~ 16MB 文件上的单次耗时和内存分配量。
+#
+# 依赖：JDK 17+、Maven
+#
+# 用法：bench/front-matter.sh
+
+set -euo pipefail
+
+SCRIPT_DIR="$( cd "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
+cd "$SCRIPT_DIR/.."
+
+echo "🔨 编译..."
+mvn -B -q test-compile
+mvn -B -q dependency:build-classpath -Dmdep.outputFile=target/bench-classpath.txt
+
+echo "⏱  运行基准测试..."
+java -Xms512m -Xmx512m -cp "target/test-classes:target/classes:$(cat target/bench-classpath.txt)" \
+    com.school.homework.service.FrontMatterParserBenchmark
@@ -0,0 +1,103 @@
+#!/bin/bash
+
+# 启动时间基准测试：标准构建 vs 快速启动构建（-Pfast-start）
+#
+# 标准构建：可执行 fat jar（java -jar）。
+# 快速启动构建：Spring AOT 预处理的应用上下文 + 训练运行生成的 AppCDS 归档（target/application.jsa），
+# 见 pom.xml 中的 fast-start profile。
+#
+# 每种构建启动 RUNS 次，记录从启动进程到 /actuator/health/readiness 返回 UP 的时间、
+# 应用日志中的 "Started ... in" 时间，以及就绪时进程的 RSS，最后输出平均值。
+# 后台文章导入默认关闭，只比较启动本身。
+#
+# 依赖：JDK 17+、Maven、curl，Linux（RSS 读取自 /proc）
+#
+# 用法：bench/startup.sh
+#   环境变量：RUNS（默认 5）、PORT（默认 18081）、IMPORT_ON_STARTUP（默认 false）
+
+set -euo pipefail
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18081}
+IMPORT_ON_STARTUP=${IMPORT_ON_STARTUP:-false}
+
+SCRIPT_DIR="$( cd "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
+cd "$SCRIPT_DIR/.."
+
+WORK_DIR=$(mktemp -d)
+APP_PID=""
+
+cleanup() {
+    if [ -n "$APP_PID" ]; then
+        kill "$APP_PID" 2> /dev/null || true
+        wait "$APP_PID" 2> /dev/null || true
+    fi
+    rm -rf "$WORK_DIR"
+}
+trap cleanup EXIT
+
+echo "📦 构建标准版本..."
+mvn -q -B -DskipTests clean package
+cp "$(ls target/*.jar | grep -v original | head -n 1)" "$WORK_DIR/standard.jar"
+
+echo "📦 构建快速启动版本（AOT + AppCDS 训练运行）..."
+mvn -q -B -Pfast-start -DskipTests clean package
+FAST_JAR="$PWD/$(ls target/*.jar | head -n 1)"
+ARCHIVE="$PWD/target/application.jsa"
+
+# 输出一行：就绪耗时(ms) Started 耗时(s) RSS(MB)
+measure() {
+    local name=$1
+    shift
+    local log="$WORK_DIR/$name.log"
+    local start
+    start=$(date +%s%N)
+    "$@" --server.port="$PORT" \
+        --spring.datasource.url="jdbc:h2:mem:startup-$name" \
+        --app.import.on-startup="$IMPORT_ON_STARTUP" > "$log" 2>&1 &
+    APP_PID=$!
+
+    for _ in $(seq 1 1200); do
+        if curl -s "http://localhost:$PORT/actuator/health/readiness" 2> /dev/null | grep -q '"UP"'; then
+            local ready
+            ready=$(( ($(date +%s%N) - start) / 1000000 ))
+            local rss
+            rss=$(awk '/VmRSS/ { printf "%d", $2 / 1024 }' "/proc/$APP_PID/status")
+            local started
+            started=$(grep -o 'Started [A-Za-z]* in [0-9.]* seconds' "$log" | awk '{ print $4 }')
+            kill "$APP_PID"
+            wait "$APP_PID" 2> /dev/null || true
+            APP_PID=""
+            echo "$ready $started $rss"
+            return 0
+        fi
+        if ! kill -0 "$APP_PID" 2> /dev/null; then
+            break
+        fi
+        sleep 0.1
+    done
+    echo "❌ $name 启动失败，日志见 $log" >&2
+    cat "$log" >&2
+    exit 1
+}
+
+report() {
+    local label=$1
+    local results=$2
+    echo "$results" | awk -v label="$label" '
+        { ready += $1; started += $2; rss += $3; n++ }
+        END { printf "%-12s %14.0f %16.2f %10.0f\n", label, ready / n, started / n, rss / n }'
+}
+
+STANDARD=""
+FAST=""
+for run in $(seq 1 "$RUNS"); do
+    echo "⏱  第 $run/$RUNS 轮..."
+    STANDARD+="$(measure standard java -jar "$WORK_DIR/standard.jar")"$'\n'
+    FAST+="$(measure fast java -Dspring.aot.enabled=true -XX:SharedArchiveFile="$ARCHIVE" -jar "$FAST_JAR")"$'\n'
+done
+
+echo ""
+printf "%-12s %14s %16s %10s\n" "build" "ready (ms)" "Started in (s)" "RSS (MB)"
+report "standard" "$(echo -n "$STANDARD")"
+report "fast-start" "$(echo -n "$FAST")"
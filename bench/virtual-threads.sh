@@ -0,0 +1,130 @@
+#!/bin/bash
+
+# 平台线程 vs 虚拟线程 压测对比脚本
+#
+# 分别以平台线程（默认）和虚拟线程（virtual profile）启动应用，
+# 用相同的并发数压测文章列表页，输出吞吐量和延迟，并打印 /admin/monitoring/threads 的 pinning 统计。
+# 平台线程模式下 Tomcat 线程数限制为 TOMCAT_THREADS，用来模拟“线程池已满、慢请求排队”的场景。
+#
+# 依赖：JDK 21、Maven、curl，以及 hey（推荐）或 ab（apache2-utils）
+#
+# 用法：bench/virtual-threads.sh
+#   环境变量：CONCURRENCY（默认 200）、DURATION（默认 30s）、TOMCAT_THREADS（默认 20）、
+#             TARGET_PATH（默认 /blog）、PORT（默认 18080）
+
+set -euo pipefail
+
+CONCURRENCY=${CONCURRENCY:-200}
+DURATION=${DURATION:-30s}
+TOMCAT_THREADS=${TOMCAT_THREADS:-20}
+TARGET_PATH=${TARGET_PATH:-/blog}
+PORT=${PORT:-18080}
+ADMIN_USER=${ADMIN_USER:-admin}
+ADMIN_PASSWORD=${ADMIN_PASSWORD:-admin123}
+
+SCRIPT_DIR="$( cd "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
+cd "$SCRIPT_DIR/.."
+
+JAVA_VERSION=$(java -version 2>&1 | head -n 1 | cut -d'"' -f2 | sed '/^1\./s///' | cut -d'.' -f1)
+if [ "$JAVA_VERSION" -lt 21 ]; then
+    echo "❌ 错误: 虚拟线程需要 JDK 21 或更高版本（当前 $JAVA_VERSION）"
+    exit 1
+fi
+
+if command -v hey &> /dev/null; then
+    LOAD_TOOL=hey
+elif command -v ab &> /dev/null; then
+    LOAD_TOOL=ab
+else
+    echo "❌ 错误: 需要 hey 或 ab 作为压测工具"
+    exit 1
+fi
+
+echo "📦 构建应用（-Pjava21）..."
+mvn -q -B -Pjava21 -DskipTests package
+JAR=$(ls target/*.jar | grep -v original | head -n 1)
+
+BASE_URL="http://localhost:$PORT"
+WORK_DIR=$(mktemp -d)
+APP_PID=""
+
+cleanup() {
+    if [ -n "$APP_PID" ]; then
+        kill "$APP_PID" 2> /dev/null || true
+        wait "$APP_PID" 2> /dev/null || true
+    fi
+    rm -rf "$WORK_DIR"
+}
+trap cleanup EXIT
+
+start_app() {
+    local mode=$1
+    local profile_args=()
+    if [ "$mode" = "virtual" ]; then
+        profile_args=(--spring.profiles.active=virtual)
+    fi
+    java -jar "$JAR" \
+        --server.port="$PORT" \
+        --spring.datasource.url="jdbc:h2:mem:bench-$mode" \
+        --server.tomcat.threads.max="$TOMCAT_THREADS" \
+        "${profile_args[@]}" > "$WORK_DIR/$mode.log" 2>&1 &
+    APP_PID=$!
+
+    for _ in $(seq 1 120); do
+        if curl -s -o /dev/null -w '%{http_code}' "$BASE_URL/login" | grep -q 200; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo "❌ 应用启动超时，日志见 $WORK_DIR/$mode.log"
+    cat "$WORK_DIR/$mode.log"
+    exit 1
+}
+
+stop_app() {
+    kill "$APP_PID"
+    wait "$APP_PID" 2> /dev/null || true
+    APP_PID=""
+}
+
+login() {
+    local jar="$WORK_DIR/cookies"
+    rm -f "$jar"
+    local csrf
+    csrf=$(curl -s -c "$jar" "$BASE_URL/login" | grep -o 'name="_csrf" value="[^"]*"' | sed 's/.*value="\([^"]*\)"/\1/')
+    curl -s -o /dev/null -b "$jar" -c "$jar" \
+        --data-urlencode "username=$ADMIN_USER" \
+        --data-urlencode "password=$ADMIN_PASSWORD" \
+        --data-urlencode "_csrf=$csrf" \
+        "$BASE_URL/login"
+    awk '$6 == "JSESSIONID" { print $7 }' "$jar"
+}
+
+run_load() {
+    local session=$1
+    if [ "$LOAD_TOOL" = "hey" ]; then
+        hey -z "$DURATION" -c "$CONCURRENCY" -H "Cookie: JSESSIONID=$session" "$BASE_URL$TARGET_PATH" \
+            | grep -E "Requests/sec|Average|Slowest|50%|95%|99%|\[[0-9]{3}\]"
+    else
+        local seconds=${DURATION%s}
+        ab -q -t "$seconds" -n 10000000 -c "$CONCURRENCY" -C "JSESSIONID=$session" "$BASE_URL$TARGET_PATH" \
+            | grep -E "Requests per second|Time per request|Failed requests|Non-2xx|  50%|  95%|  99%"
+    fi
+}
+
+for mode in platform virtual; do
+    echo ""
+    echo "=========================================="
+    echo "   模式: $mode（并发 $CONCURRENCY，持续 $DURATION，Tomcat 线程上限 $TOMCAT_THREADS）"
+    echo "=========================================="
+    start_app "$mode"
+    SESSION=$(login)
+    # Warm-up: JIT, caches and the search/tag indexes
+    curl -s -o /dev/null -H "Cookie: JSESSIONID=$SESSION" "$BASE_URL$TARGET_PATH"
+    run_load "$SESSION"
+    echo ""
+    echo "🧵 线程诊断:"
+    curl -s -H "Cookie: JSESSIONID=$SESSION" "$BASE_URL/admin/monitoring/threads"
+    echo ""
+    stop_app
+done
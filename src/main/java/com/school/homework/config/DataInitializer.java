@@ -3,21 +3,36 @@ package com.school.homework.config;
 import com.school.homework.constant.AppConstants;
 import com.school.homework.dao.PermissionRepository;
 import com.school.homework.dao.RoleRepository;
+import com.school.homework.dao.SeedVersionRepository;
 import com.school.homework.dao.UserRepository;
 import com.school.homework.entity.Permission;
 import com.school.homework.entity.Role;
+import com.school.homework.entity.SeedVersion;
 import com.school.homework.entity.User;
-import com.school.homework.service.PostImportService;
+import com.school.homework.security.TtlUserCache;
+import com.school.homework.service.impl.EntityCache;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Arrays;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,14 +45,26 @@ import org.slf4j.LoggerFactory;
  *   <li>创建默认权限（POST_CREATE, POST_READ, POST_UPDATE, POST_DELETE, COMMENT_CREATE, COMMENT_DELETE）</li>
  *   <li>创建默认角色（ROLE_ADMIN, ROLE_USER）并分配权限</li>
  *   <li>创建默认用户（管理员和普通用户）</li>
- *   <li>从 Markdown 文件自动导入文章</li>
  * </ul>
  * </p>
  *
+ * <p>以上数据是登录和鉴权所必需的，在 CommandLineRunner 中同步完成：Spring Boot 在所有
+ * CommandLineRunner 和 ApplicationReadyEvent 监听器执行完之后才把就绪状态（/actuator/health/readiness）
+ * 切换为 ACCEPTING_TRAFFIC。耗时与文章数量有关的工作都不在这条路径上：Markdown 文章导入见
+ * {@link com.school.homework.service.impl.StartupPostImport}，标签字典和搜索索引的加载见
+ * {@link com.school.homework.service.impl.StartupIndexBuild}，两者的就绪事件监听器只提交后台任务。</p>
+ *
+ * <p>版本标记：seed_version 表（{@link SeedVersion}）记录已应用的初始数据版本
+ * （{@link AppConstants#SEED_VERSION}）和默认用户配置的指纹。两者都与当前一致时，
+ * 启动只执行一次主键查询，不再逐个查找权限、角色和用户。否则在一个事务中补齐缺少的数据：
+ * 每类数据一次 IN 查询，缺少的记录批量插入，只为新建的用户计算密码哈希，最后更新标记。</p>
+ *
  * <p>配置说明：
  * <ul>
  *   <li>默认用户信息在 application.properties 中配置</li>
  *   <li>如果用户已存在，则跳过创建（避免重复创建）</li>
+ *   <li>已有角色只会补充缺少的默认权限，不会移除权限</li>
+ *   <li>多个实例同时启动时只有一个写入成功，其余实例发现标记已是最新后继续启动</li>
  * </ul>
  * </p>
  *
@@ -49,6 +76,20 @@ public class DataInitializer {
 
     private static final Logger logger = LoggerFactory.getLogger(DataInitializer.class);
 
+    /** seed_version 表中本初始数据集的名称 */
+    static final String SEED_NAME = "core";
+
+    /** 默认角色及其权限 */
+    static final Map<String, List<String>> ROLE_PERMISSIONS = new LinkedHashMap<>();
+
+    static {
+        ROLE_PERMISSIONS.put(AppConstants.ROLE_ADMIN, List.of(
+                AppConstants.PERM_POST_CREATE, AppConstants.PERM_POST_READ, AppConstants.PERM_POST_UPDATE,
+                AppConstants.PERM_POST_DELETE, AppConstants.PERM_COMMENT_CREATE, AppConstants.PERM_COMMENT_DELETE));
+        ROLE_PERMISSIONS.put(AppConstants.ROLE_USER, List.of(
+                AppConstants.PERM_POST_CREATE, AppConstants.PERM_POST_READ, AppConstants.PERM_COMMENT_CREATE));
+    }
+
     /** 管理员用户名（从配置文件读取） */
     @Value("${app.admin.username}")
     private String adminUsername;
@@ -76,80 +117,138 @@ public class DataInitializer {
     /**
      * 数据初始化 Bean
      *
-     * <p>在应用启动后自动执行，初始化系统基础数据。</p>
+     * <p>在应用启动后自动执行，初始化系统基础数据；版本标记已是最新时直接跳过。</p>
      *
      * @param roleRepository 角色数据访问接口
      * @param permissionRepository 权限数据访问接口
      * @param userRepository 用户数据访问接口
+     * @param seedVersionRepository 初始数据版本标记
      * @param passwordEncoder 密码编码器
-     * @param postImportService 文章导入服务
+     * @param transactionManager 事务管理器（全部初始数据在一个事务中写入）
+     * @param entityCache 二级缓存失效
+     * @param userCache 用户认证信息缓存
      * @return CommandLineRunner 实例
      */
     @Bean
     public CommandLineRunner initData(RoleRepository roleRepository,
                                       PermissionRepository permissionRepository,
                                       UserRepository userRepository,
+                                      SeedVersionRepository seedVersionRepository,
                                       PasswordEncoder passwordEncoder,
-                                      PostImportService postImportService) {
-    return args -> {
-            // 1. 创建权限
-            Permission postCreate = createPermissionIfNotFound(permissionRepository, AppConstants.PERM_POST_CREATE);
-            Permission postRead = createPermissionIfNotFound(permissionRepository, AppConstants.PERM_POST_READ);
-            Permission postUpdate = createPermissionIfNotFound(permissionRepository, AppConstants.PERM_POST_UPDATE);
-            Permission postDelete = createPermissionIfNotFound(permissionRepository, AppConstants.PERM_POST_DELETE);
-            Permission commentCreate = createPermissionIfNotFound(permissionRepository, AppConstants.PERM_COMMENT_CREATE);
-            Permission commentDelete = createPermissionIfNotFound(permissionRepository, AppConstants.PERM_COMMENT_DELETE);
-
-            // 2. Create Roles
-            Role adminRole = createRoleIfNotFound(roleRepository, AppConstants.ROLE_ADMIN,
-                new HashSet<>(Arrays.asList(postCreate, postRead, postUpdate, postDelete, commentCreate, commentDelete)));
-
-            Role userRole = createRoleIfNotFound(roleRepository, AppConstants.ROLE_USER,
-                new HashSet<>(Arrays.asList(postCreate, postRead, commentCreate)));
-
-            // 3. Create Admin User if not exists
-            if (userRepository.findByUsername(adminUsername).isEmpty()) {
-                User admin = new User();
-                admin.setUsername(adminUsername);
-                admin.setPassword(passwordEncoder.encode(adminPassword));
-                admin.setEmail(adminEmail);
-                admin.setRoles(new HashSet<>(Arrays.asList(adminRole)));
-                userRepository.save(admin);
-                logger.info("Admin user created.");
+                                      PlatformTransactionManager transactionManager,
+                                      EntityCache entityCache,
+                                      TtlUserCache userCache) {
+        return args -> {
+            String fingerprint = seedFingerprint();
+            if (isUpToDate(seedVersionRepository.findById(SEED_NAME), fingerprint)) {
+                logger.info("Seed data is up to date (version {}).", AppConstants.SEED_VERSION);
+                return;
             }
 
-            // 4. Create Standard User if not exists
-            if (userRepository.findByUsername(userUsername).isEmpty()) {
-                User user = new User();
-                user.setUsername(userUsername);
-                user.setPassword(passwordEncoder.encode(userPassword));
-                user.setEmail(userEmail);
-                user.setRoles(new HashSet<>(Arrays.asList(userRole)));
-                userRepository.save(user);
-                logger.info("Standard user created.");
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> applySeeds(
+                        roleRepository, permissionRepository, userRepository, seedVersionRepository,
+                        passwordEncoder, fingerprint));
+            } catch (DataIntegrityViolationException e) {
+                // Another instance booting at the same time inserted the same rows first
+                if (!isUpToDate(seedVersionRepository.findById(SEED_NAME), fingerprint)) {
+                    throw e;
+                }
+                logger.info("Seed data was applied by another instance.");
             }
 
-            // 5. Import Posts from Markdown
-            postImportService.importPostsFromResources();
+            // Seeded roles and users are read on every login; drop anything cached before seeding
+            entityCache.evictRolesAndPermissions();
+            userCache.removeAll();
+            logger.info("Roles, permissions and default users are ready (seed version {}).", AppConstants.SEED_VERSION);
         };
     }
 
-    @Transactional
-    Permission createPermissionIfNotFound(PermissionRepository permissionRepository, String name) {
-        return permissionRepository.findByName(name).orElseGet(() -> {
-            Permission permission = new Permission();
-            permission.setName(name);
-            return permissionRepository.save(permission);
-        });
+    /**
+     * 标记版本更新（由更新版本的实例写入）或版本与配置都一致时视为最新
+     */
+    static boolean isUpToDate(Optional<SeedVersion> marker, String fingerprint) {
+        return marker.map(seed -> seed.getVersion() > AppConstants.SEED_VERSION
+                        || (seed.getVersion() == AppConstants.SEED_VERSION && fingerprint.equals(seed.getFingerprint())))
+                .orElse(false);
     }
 
-    @Transactional
-    Role createRoleIfNotFound(RoleRepository roleRepository, String name, Set<Permission> permissions) {
-        return roleRepository.findByName(name).orElseGet(() -> {
-            Role role = new Role();
-            role.setName(name);
-            role.setPermissions(permissions);
-            return roleRepository.save(role);
+    void applySeeds(RoleRepository roleRepository,
+                    PermissionRepository permissionRepository,
+                    UserRepository userRepository,
+                    SeedVersionRepository seedVersionRepository,
+                    PasswordEncoder passwordEncoder,
+                    String fingerprint) {
+        // 1. 权限
+        Set<String> permissionNames = ROLE_PERMISSIONS.values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toCollection(HashSet::new));
+        Map<String, Permission> permissions = permissionRepository.findByNameIn(permissionNames).stream()
+                .collect(Collectors.toMap(Permission::getName, Function.identity()));
+        List<Permission> newPermissions = permissionNames.stream()
+                .filter(name -> !permissions.containsKey(name))
+                .map(name -> new Permission(null, name))
+                .toList();
+        permissionRepository.saveAll(newPermissions).forEach(permission -> permissions.put(permission.getName(), permission));
+
+        // 2. 角色：新建缺少的角色，已有角色补充缺少的默认权限
+        Map<String, Role> roles = roleRepository.findByNameIn(ROLE_PERMISSIONS.keySet()).stream()
+                .collect(Collectors.toMap(Role::getName, Function.identity()));
+        List<Role> changedRoles = new ArrayList<>();
+        ROLE_PERMISSIONS.forEach((roleName, names) -> {
+            Role role = roles.computeIfAbsent(roleName, name -> new Role(null, name, new HashSet<>()));
+            boolean changed = role.getId() == null;
+            for (String name : names) {
+                changed |= role.getPermissions().add(permissions.get(name));
+            }
+            if (changed) {
+                changedRoles.add(role);
+            }
         });
+        roleRepository.saveAll(changedRoles).forEach(role -> roles.put(role.getName(), role));
+
+        // 3. 默认用户：只为新建的用户计算密码哈希
+        Set<String> existingUsers = userRepository.findByUsernameIn(List.of(adminUsername, userUsername)).stream()
+                .map(User::getUsername)
+                .collect(Collectors.toSet());
+        List<User> newUsers = new ArrayList<>();
+        if (!existingUsers.contains(adminUsername)) {
+            newUsers.add(newUser(adminUsername, adminPassword, adminEmail, roles.get(AppConstants.ROLE_ADMIN), passwordEncoder));
+        }
+        if (!existingUsers.contains(userUsername) && !userUsername.equals(adminUsername)) {
+            newUsers.add(newUser(userUsername, userPassword, userEmail, roles.get(AppConstants.ROLE_USER), passwordEncoder));
+        }
+        userRepository.saveAll(newUsers);
+
+        // 4. 版本标记
+        SeedVersion marker = seedVersionRepository.findById(SEED_NAME).orElseGet(() -> new SeedVersion(SEED_NAME));
+        marker.setVersion(AppConstants.SEED_VERSION);
+        marker.setFingerprint(fingerprint);
+        seedVersionRepository.save(marker);
+
+        logger.info("Applied seed version {}: {} permissions, {} roles and {} users created or updated.",
+                AppConstants.SEED_VERSION, newPermissions.size(), changedRoles.size(), newUsers.size());
+    }
+
+    private User newUser(String username, String password, String email, Role role, PasswordEncoder passwordEncoder) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword(passwordEncoder.encode(password));
+        user.setEmail(email);
+        user.setRoles(new HashSet<>(List.of(role)));
+        return user;
+    }
+
+    /**
+     * 默认用户配置的指纹；密码不参与（已有用户的密码不会被配置覆盖）
+     */
+    String seedFingerprint() {
+        String definition = String.join("\n", adminUsername, adminEmail, userUsername, userEmail);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(definition.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
@@ -0,0 +1,96 @@
+package com.school.homework.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 主键序列初始化
+ *
+ * <p>实体主键由各表对应的序列（posts_seq、comments_seq……）按 pooled 方式分配：
+ * Hibernate 每次从序列取一个值就得到一整段 ID（app.id.allocation-size 个），
+ * 插入时不必等数据库返回自增主键，多条 INSERT 可以合并为 JDBC 批量语句。</p>
+ *
+ * <p>本组件在 EntityManagerFactory 创建之前运行（见 {@link JpaConfig}），对每张表：
+ * <ul>
+ *   <li>序列不存在时创建，起始值排在现有最大 ID 之后，旧数据的 ID 保持不变</li>
+ *   <li>序列已存在但落后于最大 ID，或步长与 app.id.allocation-size 不同时，调整序列</li>
+ * </ul>
+ * Hibernate 启动时发现序列步长与注解中的默认值不同，会以数据库中的步长为准
+ * （hibernate.id.sequence.increment_size_mismatch_strategy=fix）。</p>
+ *
+ * <p>SQL 使用 H2 的 INFORMATION_SCHEMA 和 ALTER SEQUENCE 语法。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Component
+public class IdSequenceInitializer implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceInitializer.class);
+
+    /** 使用序列主键的表，序列名为 表名 + "_seq" */
+    static final List<String> TABLES =
+            List.of("users", "roles", "permissions", "tags", "posts", "comments", "import_manifest");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int allocationSize;
+
+    public IdSequenceInitializer(DataSource dataSource,
+                                 @Value("${app.id.allocation-size:50}") int allocationSize) {
+        if (allocationSize < 1) {
+            throw new IllegalArgumentException("app.id.allocation-size must be positive");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.allocationSize = allocationSize;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        TABLES.forEach(this::synchronize);
+    }
+
+    private void synchronize(String table) {
+        String sequence = table + "_seq";
+        long maxId = tableExists(table)
+                ? jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class)
+                : 0L;
+        // Pooled optimizer: a sequence value v hands out ids (v - allocationSize, v]
+        long required = maxId + allocationSize;
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT BASE_VALUE, INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES "
+                        + "WHERE SEQUENCE_SCHEMA = SCHEMA() AND SEQUENCE_NAME = ?", sequence.toUpperCase());
+        if (rows.isEmpty()) {
+            jdbcTemplate.execute("CREATE SEQUENCE " + sequence + " START WITH " + required
+                    + " INCREMENT BY " + allocationSize);
+            logger.info("Created sequence {} starting at {} (max {}.id = {}).", sequence, required, table, maxId);
+            return;
+        }
+
+        long next = ((Number) rows.get(0).get("BASE_VALUE")).longValue();
+        long increment = ((Number) rows.get(0).get("INCREMENT")).longValue();
+        if (next >= required && increment == allocationSize) {
+            return;
+        }
+        long restart = Math.max(next, required);
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restart
+                + " INCREMENT BY " + allocationSize);
+        logger.info("Adjusted sequence {}: next value {} -> {}, increment {} -> {}.",
+                sequence, next, restart, increment, allocationSize);
+    }
+
+    private boolean tableExists(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = ?",
+                Integer.class, table.toUpperCase());
+        return count != null && count > 0;
+    }
+}
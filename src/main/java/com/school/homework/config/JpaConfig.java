@@ -1,10 +1,17 @@
 package com.school.homework.config;
 
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
 @Configuration
 @EnableJpaAuditing
 public class JpaConfig {
-}
 
+    // Sequences must be in place before Hibernate reads their increment at startup
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor idSequencesBeforeJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor(IdSequenceInitializer.class);
+    }
+}
@@ -0,0 +1,53 @@
+package com.school.homework.config;
+
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Hibernate 二级缓存配置
+ *
+ * <p>User、Role、Permission、Tag 及其 EAGER 集合缓存在本地 Ehcache（JCache）中，
+ * 并启用查询缓存（findByUsername / findByName）。各缓存区域的容量和过期时间在
+ * classpath:ehcache.xml 中定义。</p>
+ *
+ * <p>每个 Spring 上下文创建自己的 CacheManager，而不是按配置文件 URI 共享同一个，
+ * 这样测试中的多个上下文（各自使用不同的数据库）不会读到彼此的缓存数据。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        EhcacheCachingProvider provider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        XmlConfiguration configuration = new XmlConfiguration(getClass().getResource("/ehcache.xml"));
+        return provider.getCacheManager(URI.create("urn:blog:hibernate-cache:" + UUID.randomUUID()), configuration);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Region hit/miss counters for /admin/monitoring/caches, without per-session metric logging
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+}
@@ -1,6 +1,11 @@
 package com.school.homework.config;
 
+import com.school.homework.security.BCryptStrengthCalibrator;
+import com.school.homework.security.BoundedPasswordEncoder;
 import com.school.homework.security.CustomUserDetailsService;
+import com.school.homework.security.LoginFailureHandler;
+import com.school.homework.security.TtlUserCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -22,8 +27,8 @@ import org.springframework.security.web.SecurityFilterChain;
  *   <li>表单登录配置</li>
  *   <li>登出配置</li>
  *   <li>CSRF 保护配置</li>
- *   <li>密码编码器配置</li>
- *   <li>认证提供者配置</li>
+ *   <li>密码编码器配置（哈希在有界线程池中执行，强度按目标耗时校准）</li>
+ *   <li>认证提供者配置（带用户信息缓存）</li>
  * </ul>
  * </p>
  *
@@ -45,13 +50,18 @@ public class SecurityConfig {
     /** 自定义用户详情服务 */
     private final CustomUserDetailsService userDetailsService;
 
+    /** 用户认证信息缓存 */
+    private final TtlUserCache userCache;
+
     /**
      * 构造函数注入依赖
      *
      * @param userDetailsService 自定义用户详情服务
+     * @param userCache 用户认证信息缓存
      */
-    public SecurityConfig(CustomUserDetailsService userDetailsService) {
+    public SecurityConfig(CustomUserDetailsService userDetailsService, TtlUserCache userCache) {
         this.userDetailsService = userDetailsService;
+        this.userCache = userCache;
     }
 
     /**
@@ -69,7 +79,9 @@ public class SecurityConfig {
             // 配置 URL 访问控制
             .authorizeHttpRequests(auth -> auth
                 // 公开访问的路径（无需认证）
-                .requestMatchers("/", "/register", "/login", "/css/**", "/js/**", "/h2-console/**", "/images/**", "/webjars/**").permitAll()
+                .requestMatchers("/", "/register", "/login", "/error", "/css/**", "/js/**", "/h2-console/**", "/images/**", "/webjars/**").permitAll()
+                // 健康检查与存活/就绪探针（组件详情仅管理员可见）
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
                 // 其他所有请求需要认证
                 .anyRequest().authenticated()
             )
@@ -77,6 +89,7 @@ public class SecurityConfig {
             .formLogin(form -> form
                 .loginPage("/login")              // 登录页面路径
                 .defaultSuccessUrl("/", true)      // 登录成功后重定向的URL
+                .failureHandler(new LoginFailureHandler("/login?error")) // 密码校验过载时返回 503
                 .permitAll()                       // 允许所有人访问登录页面
             )
             // 配置登出
@@ -96,15 +109,18 @@ public class SecurityConfig {
     /**
      * 配置认证提供者
      *
-     * <p>使用自定义的 UserDetailsService 和密码编码器。</p>
+     * <p>使用自定义的 UserDetailsService 和密码编码器；
+     * 用户信息先从缓存读取，集中登录时不必每次查询用户、角色和权限。</p>
      *
+     * @param passwordEncoder 密码编码器
      * @return 配置好的 DaoAuthenticationProvider
      */
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserCache(userCache);
         return authProvider;
     }
 
@@ -123,13 +139,28 @@ public class SecurityConfig {
     /**
      * 配置密码编码器
      *
-     * <p>使用 BCrypt 算法加密密码。</p>
+     * <p>使用 BCrypt 算法加密密码。强度在启动时按 app.security.bcrypt.target-ms 校准；
+     * 哈希计算在固定大小的线程池中执行，排队已满时快速失败（503）。</p>
      *
-     * @return BCrypt 密码编码器
+     * @param targetMillis 单次哈希目标耗时（毫秒）
+     * @param minStrength 最低强度
+     * @param maxStrength 最高强度
+     * @param threads 哈希线程数（0 表示 CPU 核数）
+     * @param queueCapacity 等待队列长度
+     * @param retryAfterSeconds 过载时 Retry-After 秒数
+     * @return 密码编码器
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.target-ms:100}") long targetMillis,
+                                                  @Value("${app.security.bcrypt.min-strength:10}") int minStrength,
+                                                  @Value("${app.security.bcrypt.max-strength:14}") int maxStrength,
+                                                  @Value("${app.security.hashing.threads:0}") int threads,
+                                                  @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity,
+                                                  @Value("${app.security.hashing.retry-after-seconds:2}") int retryAfterSeconds) {
+        int strength = BCryptStrengthCalibrator.calibrate(targetMillis, minStrength, maxStrength);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity,
+                retryAfterSeconds);
     }
 }
 
@@ -53,5 +53,33 @@ public final class AppConstants {
 
     /** 删除评论权限 */
     public static final String PERM_COMMENT_DELETE = "COMMENT_DELETE";
-}
 
+    // ========== 文章常量 ==========
+
+    /** 列表页文章摘要的最大长度（字符数，含省略号） */
+    public static final int POST_EXCERPT_LENGTH = 150;
+
+    // ========== 评论常量 ==========
+
+    /** 文章详情页每次加载的评论数 */
+    public static final int COMMENT_PAGE_SIZE = 20;
+
+    /** 评论分页接口允许的最大每页条数 */
+    public static final int COMMENT_PAGE_MAX_SIZE = 100;
+
+    // ========== 主键常量 ==========
+
+    /**
+     * 实体主键序列的默认预取数量（@SequenceGenerator 要求编译期常量）。
+     * 运行时以 app.id.allocation-size 为准，数据库序列的步长会在启动时同步为该值。
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // ========== 初始数据常量 ==========
+
+    /**
+     * 初始数据（默认权限、角色及其权限分配）的版本号。
+     * 修改 DataInitializer 中的初始数据定义时加一，各实例下次启动时补齐缺少的数据。
+     */
+    public static final int SEED_VERSION = 1;
+}
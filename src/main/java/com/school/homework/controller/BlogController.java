@@ -1,8 +1,11 @@
 package com.school.homework.controller;
 
+import com.school.homework.constant.AppConstants;
 import com.school.homework.dto.CommentDto;
+import com.school.homework.dto.CursorPage;
 import com.school.homework.dto.PostDto;
 import com.school.homework.dto.PostSearchCriteria;
+import com.school.homework.dto.PostSummaryDto;
 import com.school.homework.entity.Post;
 import com.school.homework.entity.Tag;
 import com.school.homework.service.CommentService;
@@ -17,10 +20,12 @@ import org.springframework.data.domain.Sort;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
+import java.util.List;
 import java.util.stream.Collectors;
 
 /**
@@ -36,7 +41,7 @@ import java.util.stream.Collectors;
  * <li>文章列表展示和搜索</li>
  * <li>文章详情查看</li>
  * <li>文章创建、编辑、删除</li>
- * <li>评论添加</li>
+ * <li>评论添加和分页加载</li>
  * </ul>
  * </p>
  *
@@ -80,31 +85,50 @@ public class BlogController {
      * 显示文章列表页面
      *
      * <p>
-     * 支持搜索和分页功能。
+     * 支持搜索和分页功能。默认使用游标分页（按创建时间倒序，不执行 count 查询），
+     * 传入 page 参数时使用页码分页（兼容旧链接，显示总页数）。
+     * 关键词搜索按相关度排序并显示高亮摘要，始终使用页码分页。
      * </p>
      *
      * @param criteria 搜索条件（标题、内容、标签、作者）
-     * @param page     页码，从0开始，默认0
+     * @param page     页码，从0开始；为空且没有关键词时使用游标分页
+     * @param after    游标：显示该位置之后（更早）的文章
+     * @param before   游标：显示该位置之前（更新）的文章
      * @param size     每页大小，默认5
      * @param model    视图模型
      * @return 文章列表页面视图
      */
     @GetMapping
     public String listPosts(@ModelAttribute PostSearchCriteria criteria,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
             @RequestParam(defaultValue = "5") int size,
             Model model) {
-        // 创建分页对象，按创建时间倒序排列
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        List<PostSummaryDto> posts;
+        // 关键词搜索按相关度排序，只能使用页码分页
+        if (page != null || StringUtils.hasText(criteria.getQuery())) {
+            // 创建分页对象，按创建时间倒序排列（关键词搜索时按相关度）
+            Pageable pageable = PageRequest.of(page == null ? 0 : page, size, Sort.by("createdAt").descending());
 
-        // 执行搜索查询
-        Page<Post> postPage = postService.searchPosts(criteria, pageable);
+            // 执行搜索查询
+            Page<PostSummaryDto> postPage = postService.searchPosts(criteria, pageable);
+            posts = postPage.getContent();
+
+            model.addAttribute("currentPage", pageable.getPageNumber());
+            model.addAttribute("totalPages", postPage.getTotalPages());
+            model.addAttribute("totalItems", postPage.getTotalElements());
+        } else {
+            // 游标分页：按 (createdAt, id) 定位，页数增加时查询耗时不变
+            CursorPage<PostSummaryDto> cursorPage = postService.searchPosts(criteria, after, before, size);
+            posts = cursorPage.getContent();
+
+            model.addAttribute("nextCursor", cursorPage.getNextCursor());
+            model.addAttribute("prevCursor", cursorPage.getPreviousCursor());
+        }
 
         // 将数据添加到模型中
-        model.addAttribute("posts", postPage.getContent());
-        model.addAttribute("currentPage", page);
-        model.addAttribute("totalPages", postPage.getTotalPages());
-        model.addAttribute("totalItems", postPage.getTotalElements());
+        model.addAttribute("posts", posts);
         model.addAttribute("criteria", criteria); // 保留搜索条件，用于表单回填
 
         return "blog/posts";
@@ -115,6 +139,7 @@ public class BlogController {
      *
      * <p>
      * 查看文章时自动递增浏览次数，并将 Markdown 内容渲染为 HTML。
+     * 只渲染第一页评论，后续评论由页面通过 {@link #loadComments} 按需加载。
      * </p>
      *
      * @param id    文章ID
@@ -123,22 +148,47 @@ public class BlogController {
      */
     @GetMapping("/posts/{id}")
     public String viewPost(@PathVariable Long id, Model model) {
-        // 原子递增浏览次数
-        postService.incrementViewCount(id);
-
-        // 获取文章
+        // 获取文章（不存在时抛出 404，不记录浏览）
         Post post = postService.getPostById(id);
 
-        // 将 Markdown 内容渲染为 HTML
-        String htmlContent = markdownService.renderToHtml(post.getContent());
-        model.addAttribute("htmlContent", htmlContent);
+        // 递增浏览次数（内存缓冲，定期批量写入数据库）
+        postService.incrementViewCount(id);
+
+        // 优先使用写入时保存的 HTML；版本过期时回退到带缓存的实时渲染
+        model.addAttribute("htmlContent", renderContent(post));
 
-        // 添加文章和评论表单到模型
+        // 添加文章、浏览次数（含未写入的增量）、第一页评论和评论表单到模型
         model.addAttribute("post", post);
+        model.addAttribute("viewCount", postService.getViewCount(post));
+        model.addAttribute("comments", commentService.getCommentsByPostId(id, null, AppConstants.COMMENT_PAGE_SIZE));
         model.addAttribute("newComment", new CommentDto());
         return "blog/post_detail";
     }
 
+    /**
+     * 加载更多评论（HTML 片段）
+     *
+     * <p>
+     * 返回 after 游标之后的一页评论及下一页的“加载更多”按钮，由文章详情页追加到评论列表末尾。
+     * </p>
+     *
+     * @param id    文章ID
+     * @param after 游标：上一页最后一条评论之后
+     * @param size  每页大小，最大 {@link AppConstants#COMMENT_PAGE_MAX_SIZE}
+     * @param model 视图模型
+     * @return 评论列表片段
+     */
+    @GetMapping("/posts/{id}/comments")
+    public String loadComments(@PathVariable Long id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + AppConstants.COMMENT_PAGE_SIZE) int size,
+            Model model) {
+        int pageSize = Math.max(1, Math.min(size, AppConstants.COMMENT_PAGE_MAX_SIZE));
+        model.addAttribute("postId", id);
+        model.addAttribute("comments", commentService.getCommentsByPostId(id, after, pageSize));
+        return "fragments/comments :: comment_page";
+    }
+
     /**
      * 显示创建文章表单
      *
@@ -291,6 +341,9 @@ public class BlogController {
         if (bindingResult.hasErrors()) {
             Post post = postService.getPostById(postId);
             model.addAttribute("post", post);
+            model.addAttribute("viewCount", postService.getViewCount(post));
+            model.addAttribute("htmlContent", renderContent(post));
+            model.addAttribute("comments", commentService.getCommentsByPostId(postId, null, AppConstants.COMMENT_PAGE_SIZE));
             // newComment 已经通过 @ModelAttribute 添加到模型中，包含错误信息
             return "blog/post_detail";
         }
@@ -298,4 +351,23 @@ public class BlogController {
         commentService.addComment(commentDto, postId, principal.getName());
         return "redirect:/blog/posts/" + postId;
     }
+
+    /**
+     * 获取文章的 HTML 内容
+     *
+     * <p>
+     * 写入时已渲染且渲染器版本一致则直接返回，否则（如旧数据尚未被后台任务更新）实时渲染。
+     * </p>
+     *
+     * @param post 文章
+     * @return 渲染后的 HTML
+     */
+    private String renderContent(Post post) {
+        Integer renderVersion = post.getRenderVersion();
+        if (post.getContentHtml() != null && renderVersion != null
+                && renderVersion == markdownService.getRendererVersion()) {
+            return post.getContentHtml();
+        }
+        return markdownService.renderPostToHtml(post.getId(), post.getUpdatedAt(), post.getContent());
+    }
 }
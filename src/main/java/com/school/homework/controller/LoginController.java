@@ -1,6 +1,7 @@
 package com.school.homework.controller;
 
 import com.school.homework.dto.RegisterDto;
+import com.school.homework.exception.PasswordHashingBusyException;
 import com.school.homework.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,6 +43,9 @@ public class LoginController {
         try {
             userService.registerUser(registerDto);
             return "redirect:/login?registered";
+        } catch (PasswordHashingBusyException e) {
+            // Not a form error: answered with 503 + Retry-After by GlobalExceptionHandler
+            throw e;
         } catch (Exception e) {
             bindingResult.rejectValue("username", "error.user", e.getMessage());
             return "register";
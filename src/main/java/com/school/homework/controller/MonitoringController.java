@@ -0,0 +1,93 @@
+package com.school.homework.controller;
+
+import com.school.homework.dto.CacheStatsDto;
+import com.school.homework.dto.ImportProgressDto;
+import com.school.homework.dto.ThreadDiagnosticsDto;
+import com.school.homework.security.TtlUserCache;
+import com.school.homework.service.MarkdownService;
+import com.school.homework.service.impl.EntityCache;
+import com.school.homework.service.impl.StartupPostImport;
+import com.school.homework.service.impl.ThreadDiagnostics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 运行监控控制器
+ *
+ * <p>以 JSON 形式暴露进程内缓存等运行指标，仅管理员可访问。</p>
+ *
+ * <p>路由前缀：/admin/monitoring</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/admin/monitoring")
+@PreAuthorize("hasAuthority('ROLE_ADMIN')")
+public class MonitoringController {
+
+    /** Markdown 渲染服务 */
+    private final MarkdownService markdownService;
+
+    /** Hibernate 二级缓存 */
+    private final EntityCache entityCache;
+
+    /** 用户认证信息缓存 */
+    private final TtlUserCache userCache;
+
+    /** 线程执行模式诊断 */
+    private final ThreadDiagnostics threadDiagnostics;
+
+    /** 启动时的后台文章导入 */
+    private final StartupPostImport startupPostImport;
+
+    @Autowired
+    public MonitoringController(MarkdownService markdownService, EntityCache entityCache, TtlUserCache userCache,
+                                ThreadDiagnostics threadDiagnostics, StartupPostImport startupPostImport) {
+        this.markdownService = markdownService;
+        this.entityCache = entityCache;
+        this.userCache = userCache;
+        this.threadDiagnostics = threadDiagnostics;
+        this.startupPostImport = startupPostImport;
+    }
+
+    /**
+     * 查询各缓存的命中、未命中和淘汰统计
+     *
+     * @return 缓存统计列表
+     */
+    @GetMapping("/caches")
+    public List<CacheStatsDto> cacheStats() {
+        List<CacheStatsDto> stats = new ArrayList<>();
+        stats.add(markdownService.getCacheStats());
+        stats.add(userCache.getCacheStats());
+        stats.addAll(entityCache.getStats());
+        return stats;
+    }
+
+    /**
+     * 查询线程执行模式（平台线程 / 虚拟线程）及虚拟线程 pinning 统计
+     *
+     * @return 线程诊断信息
+     */
+    @GetMapping("/threads")
+    public ThreadDiagnosticsDto threads() {
+        return threadDiagnostics.getSnapshot();
+    }
+
+    /**
+     * 查询启动时后台文章导入的状态和进度
+     *
+     * @return 导入进度
+     */
+    @GetMapping("/import")
+    public ImportProgressDto importProgress() {
+        return startupPostImport.getProgress();
+    }
+}
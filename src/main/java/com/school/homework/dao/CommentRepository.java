@@ -1,13 +1,19 @@
 package com.school.homework.dao;
 
+import com.school.homework.dto.CommentDto;
 import com.school.homework.entity.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByPostId(Long postId);
+    // Keyset page: comments of a post after the given id, with the author columns joined in the same statement
+    @Query("SELECT new com.school.homework.dto.CommentDto(c.id, c.content, a.username, a.avatar, c.createdAt) "
+            + "FROM Comment c JOIN c.author a WHERE c.post.id = :postId AND c.id > :afterId ORDER BY c.id")
+    List<CommentDto> findPageByPostId(@Param("postId") Long postId, @Param("afterId") long afterId, Pageable pageable);
 }
-
@@ -0,0 +1,12 @@
+package com.school.homework.dao;
+
+import com.school.homework.entity.ImportManifestEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ImportManifestRepository extends JpaRepository<ImportManifestEntry, Long> {
+    List<ImportManifestEntry> findBySourcePathStartingWith(String origin);
+    List<ImportManifestEntry> findBySourcePathIn(Collection<String> sourcePaths);
+}
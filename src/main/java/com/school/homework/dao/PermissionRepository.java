@@ -1,10 +1,17 @@
 package com.school.homework.dao;
 
 import com.school.homework.entity.Permission;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PermissionRepository extends JpaRepository<Permission, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Permission> findByName(String name);
+    // Seeding: one query for all default permissions
+    List<Permission> findByNameIn(Collection<String> names);
 }
-
@@ -1,17 +1,27 @@
 package com.school.homework.dao;
 
+import com.school.homework.dao.projection.PostContentView;
+import com.school.homework.dao.projection.PostKeyView;
+import com.school.homework.dao.projection.PostTagLinkView;
+import com.school.homework.dao.projection.PostTagNameView;
+import com.school.homework.dao.projection.PostTextView;
+import com.school.homework.dto.PostSummaryDto;
 import com.school.homework.entity.Post;
+import com.school.homework.enums.PostStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificationExecutor<Post> {
+public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificationExecutor<Post>, PostRepositoryCustom {
 
     @EntityGraph(attributePaths = {"author", "tags"})
     List<Post> findByAuthorId(Long userId);
@@ -22,13 +32,49 @@ public interface PostRepository extends JpaRepository<Post, Long>, JpaSpecificat
     @EntityGraph(attributePaths = {"author", "tags"})
     Page<Post> findByTags_Name(String tagName, Pageable pageable);
 
-    @org.springframework.data.jpa.repository.Modifying
-    @org.springframework.data.jpa.repository.Query("UPDATE Post p SET p.viewCount = p.viewCount + 1 WHERE p.id = :id")
-    void incrementViewCount(Long id);
+    // List page: selects only the card columns, never content or content_html
+    @Query("SELECT new com.school.homework.dto.PostSummaryDto(p.id, p.title, p.excerpt, p.createdAt, "
+            + "p.viewCount, a.username, a.avatar) FROM Post p LEFT JOIN p.author a WHERE p.id IN :ids")
+    List<PostSummaryDto> findSummariesByIdIn(Collection<Long> ids);
 
-    @Override
-    @EntityGraph(attributePaths = {"author", "tags"})
-    Page<Post> findAll(org.springframework.data.jpa.domain.Specification<Post> spec, Pageable pageable);
+    @Query("SELECT p.id AS postId, t.name AS tagName FROM Post p JOIN p.tags t WHERE p.id IN :ids ORDER BY t.name")
+    List<PostTagNameView> findTagNamesByPostIdIn(Collection<Long> ids);
+
+    @Query("SELECT p.id AS id, p.title AS title, p.content AS content, p.author.id AS authorId FROM Post p "
+            + "WHERE p.id > :afterId ORDER BY p.id")
+    List<PostTextView> findTextBatch(Long afterId, Pageable pageable);
+
+    // Sort keys of every post, so tag and keyword matches can be paged in memory
+    @Query("SELECT p.id AS id, p.createdAt AS createdAt, p.author.id AS authorId FROM Post p "
+            + "WHERE p.id > :afterId ORDER BY p.id")
+    List<PostKeyView> findKeyBatch(long afterId, Pageable pageable);
+
+    // Keyset over (post id, tag id) so a post's tags are never split across a batch boundary unseen
+    @Query("SELECT p.id AS postId, t.id AS tagId, t.name AS tagName FROM Post p JOIN p.tags t "
+            + "WHERE p.id > :afterPostId OR (p.id = :afterPostId AND t.id > :afterTagId) ORDER BY p.id, t.id")
+    List<PostTagLinkView> findTagLinkBatch(long afterPostId, long afterTagId, Pageable pageable);
+
+    // Import de-duplication: titles only, no entity hydration
+    @Query("SELECT p.title FROM Post p")
+    List<String> findAllTitles();
+
+    // Rows written before the excerpt column existed are stale as well, so the job backfills them
+    @Query("SELECT p.id AS id, p.content AS content FROM Post p "
+            + "WHERE p.renderVersion IS NULL OR p.renderVersion <> :version OR p.excerpt IS NULL ORDER BY p.id")
+    List<PostContentView> findStaleRendered(int version, Pageable pageable);
+
+    // Bulk update on purpose: re-rendering must not touch updatedAt through auditing.
+    // Only while the row is still stale: an edit committed after the job read the content already stored
+    // fresh HTML, which must not be overwritten with HTML of the old content. Returns 0 in that case.
+    @Modifying
+    @Query("UPDATE Post p SET p.contentHtml = :contentHtml, p.excerpt = :excerpt, p.renderVersion = :version "
+            + "WHERE p.id = :id AND (p.renderVersion IS NULL OR p.renderVersion <> :version OR p.excerpt IS NULL)")
+    int updateRenderedContent(Long id, String contentHtml, String excerpt, int version);
+
+    // Import: posts whose Markdown source file was removed
+    @Modifying
+    @Query("UPDATE Post p SET p.status = :status WHERE p.id IN :ids")
+    int updateStatus(Collection<Long> ids, PostStatus status);
 
     @Override
     @EntityGraph(attributePaths = {"author", "tags"})
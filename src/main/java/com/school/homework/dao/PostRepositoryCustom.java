@@ -0,0 +1,44 @@
+package com.school.homework.dao;
+
+import com.school.homework.dto.PostCursor;
+import com.school.homework.entity.Post;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written data access for posts that Spring Data cannot derive.
+ */
+public interface PostRepositoryCustom {
+
+    /**
+     * Adds the given deltas (post id -> views) to the persisted view counters in one JDBC batch.
+     */
+    void addViewCounts(Map<Long, Long> deltas);
+
+    /**
+     * Seeks past {@code cursor} in (createdAt DESC, id DESC) order and returns the keys of at most
+     * {@code limit} matching posts, without OFFSET and without a count query.
+     *
+     * @param cursor   position to seek from, or null to start at the newest post
+     * @param backward true to return the posts just before the cursor (newer ones), nearest first
+     */
+    List<PostCursor> findKeysetPage(Specification<Post> spec, PostCursor cursor, boolean backward, int limit);
+
+    /**
+     * First phase of a paged list: selects only the ids of the requested page, with the specification,
+     * sort and limit applied in SQL. The count query is skipped when the page itself reveals the total.
+     */
+    Page<Long> findIdPage(Specification<Post> spec, Pageable pageable);
+
+    /**
+     * Search snippets: reads only a window of each post's content, all in one statement.
+     *
+     * @param ranges post id -> {start (1-based), length}
+     * @return post id -> content fragment; posts that no longer exist are missing
+     */
+    Map<Long, String> findContentFragments(Map<Long, int[]> ranges);
+}
@@ -0,0 +1,151 @@
+package com.school.homework.dao;
+
+import com.school.homework.dto.PostCursor;
+import com.school.homework.entity.Post;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+public class PostRepositoryCustomImpl implements PostRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public PostRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public void addViewCounts(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // Update rows in id order so concurrent flushers always lock in the same order
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        new TreeMap<>(deltas).forEach((id, delta) -> batchArgs.add(new Object[]{delta, id}));
+        jdbcTemplate.batchUpdate("UPDATE posts SET view_count = view_count + ? WHERE id = ?", batchArgs);
+    }
+
+    @Override
+    public List<PostCursor> findKeysetPage(Specification<Post> spec, PostCursor cursor, boolean backward, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Post> root = query.from(Post.class);
+        Path<LocalDateTime> createdAt = root.get("createdAt");
+        Path<Long> id = root.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate criteria = toPredicate(spec, root, query, cb);
+        if (criteria != null) {
+            predicates.add(criteria);
+        }
+        if (cursor != null) {
+            // Row-value comparison (createdAt, id) < / > (cursor.createdAt, cursor.id), spelled out for JPA
+            predicates.add(backward
+                    ? cb.or(cb.greaterThan(createdAt, cursor.getCreatedAt()),
+                            cb.and(cb.equal(createdAt, cursor.getCreatedAt()), cb.greaterThan(id, cursor.getId())))
+                    : cb.or(cb.lessThan(createdAt, cursor.getCreatedAt()),
+                            cb.and(cb.equal(createdAt, cursor.getCreatedAt()), cb.lessThan(id, cursor.getId()))));
+        }
+
+        query.multiselect(createdAt, id)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(backward
+                        ? List.of(cb.asc(createdAt), cb.asc(id))
+                        : List.of(cb.desc(createdAt), cb.desc(id)));
+
+        List<PostCursor> keys = new ArrayList<>();
+        for (Tuple row : entityManager.createQuery(query).setMaxResults(limit).getResultList()) {
+            keys.add(new PostCursor(row.get(0, LocalDateTime.class), row.get(1, Long.class)));
+        }
+        return keys;
+    }
+
+    @Override
+    public Page<Long> findIdPage(Specification<Post> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Post> root = query.from(Post.class);
+        Path<Long> id = root.get("id");
+
+        query.select(id);
+        Predicate criteria = toPredicate(spec, root, query, cb);
+        if (criteria != null) {
+            query.where(criteria);
+        }
+        // Sort in SQL, with id as a tie-breaker so pages never overlap
+        Sort sort = pageable.getSort().and(Sort.by(Sort.Direction.DESC, "id"));
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        TypedQuery<Long> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public Map<Long, String> findContentFragments(Map<Long, int[]> ranges) {
+        if (ranges.isEmpty()) {
+            return Map.of();
+        }
+        // Every post has its own window, so one SELECT per post glued with UNION ALL: one round trip per page
+        StringJoiner sql = new StringJoiner(" UNION ALL ");
+        List<Object> args = new ArrayList<>(ranges.size() * 3);
+        ranges.forEach((id, range) -> {
+            sql.add("SELECT id, SUBSTRING(content, ?, ?) FROM posts WHERE id = ?");
+            args.add(range[0]);
+            args.add(range[1]);
+            args.add(id);
+        });
+        Map<Long, String> fragments = new HashMap<>();
+        jdbcTemplate.query(sql.toString(), rs -> {
+            fragments.put(rs.getLong(1), rs.getString(2));
+        }, args.toArray());
+        return fragments;
+    }
+
+    private long count(Specification<Post> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Post> root = query.from(Post.class);
+
+        query.select(cb.count(root));
+        Predicate criteria = toPredicate(spec, root, query, cb);
+        if (criteria != null) {
+            query.where(criteria);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private Predicate toPredicate(Specification<Post> spec, Root<Post> root, CriteriaQuery<?> query,
+                                  CriteriaBuilder cb) {
+        return spec == null ? null : spec.toPredicate(root, query, cb);
+    }
+}
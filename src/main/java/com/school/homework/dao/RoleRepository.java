@@ -1,10 +1,17 @@
 package com.school.homework.dao;
 
 import com.school.homework.entity.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Role> findByName(String name);
+    // Seeding: one query for all default roles
+    List<Role> findByNameIn(Collection<String> names);
 }
-
@@ -0,0 +1,7 @@
+package com.school.homework.dao;
+
+import com.school.homework.entity.SeedVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SeedVersionRepository extends JpaRepository<SeedVersion, String> {
+}
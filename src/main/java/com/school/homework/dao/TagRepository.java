@@ -1,12 +1,16 @@
 package com.school.homework.dao;
 
 import com.school.homework.entity.Tag;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface TagRepository extends JpaRepository<Tag, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Tag> findByName(String name);
     List<Tag> findByNameIn(Collection<String> names);
 }
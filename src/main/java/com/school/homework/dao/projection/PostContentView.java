@@ -0,0 +1,10 @@
+package com.school.homework.dao.projection;
+
+/**
+ * Minimal read projection carrying only the Markdown source of a post.
+ */
+public interface PostContentView {
+    Long getId();
+
+    String getContent();
+}
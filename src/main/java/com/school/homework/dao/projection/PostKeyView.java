@@ -0,0 +1,14 @@
+package com.school.homework.dao.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * List sort key and author of a post, used to page index matches in memory.
+ */
+public interface PostKeyView {
+    Long getId();
+
+    LocalDateTime getCreatedAt();
+
+    Long getAuthorId();
+}
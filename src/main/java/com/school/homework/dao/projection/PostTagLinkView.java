@@ -0,0 +1,12 @@
+package com.school.homework.dao.projection;
+
+/**
+ * One row of the post_tags join table with the tag name, used to build the tag bitmap index.
+ */
+public interface PostTagLinkView {
+    Long getPostId();
+
+    Long getTagId();
+
+    String getTagName();
+}
@@ -0,0 +1,10 @@
+package com.school.homework.dao.projection;
+
+/**
+ * One (post id, tag name) pair, used to attach tag names to list-page summaries.
+ */
+public interface PostTagNameView {
+    Long getPostId();
+
+    String getTagName();
+}
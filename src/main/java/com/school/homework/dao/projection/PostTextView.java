@@ -0,0 +1,14 @@
+package com.school.homework.dao.projection;
+
+/**
+ * Title, Markdown source and author of a post, used to build the full-text index.
+ */
+public interface PostTextView {
+    Long getId();
+
+    String getTitle();
+
+    String getContent();
+
+    Long getAuthorId();
+}
@@ -4,17 +4,24 @@ import com.school.homework.dto.PostSearchCriteria;
 import com.school.homework.entity.Post;
 import com.school.homework.entity.Tag;
 import com.school.homework.entity.User;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 public class PostSpecification {
 
+    // Used when the in-memory indexes cannot answer the keyword and tag conditions (not built yet)
     public static Specification<Post> withCriteria(PostSearchCriteria criteria) {
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
@@ -30,9 +37,13 @@ public class PostSpecification {
                 predicates.add(cb.or(titleLike, contentLike));
             }
 
-            if (StringUtils.hasText(criteria.getTag())) {
-                Join<Post, Tag> tagsJoin = root.join("tags", JoinType.INNER);
-                predicates.add(cb.equal(tagsJoin.get("name"), criteria.getTag()));
+            Set<String> tagNames = criteria.requestedTags();
+            if (criteria.matchesAnyTag() && !tagNames.isEmpty()) {
+                predicates.add(hasAnyTag(root, query, cb, tagNames));
+            } else {
+                for (String tagName : tagNames) {
+                    predicates.add(hasAnyTag(root, query, cb, List.of(tagName)));
+                }
             }
 
             if (StringUtils.hasText(criteria.getAuthorUsername())) {
@@ -43,5 +54,15 @@ public class PostSpecification {
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    // EXISTS instead of a join, so a post with several matching tags is still returned once
+    private static Predicate hasAnyTag(Root<Post> root, CriteriaQuery<?> query, CriteriaBuilder cb,
+                                       Collection<String> tagNames) {
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Root<Post> post = subquery.from(Post.class);
+        Join<Post, Tag> tags = post.join("tags", JoinType.INNER);
+        subquery.select(post.get("id")).where(cb.equal(post, root), tags.get("name").in(tagNames));
+        return cb.exists(subquery);
+    }
 }
 
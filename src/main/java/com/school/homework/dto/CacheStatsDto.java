@@ -0,0 +1,23 @@
+package com.school.homework.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsDto {
+    private String name;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long size;
+    private long weightBytes;
+    private long maxWeightBytes;
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
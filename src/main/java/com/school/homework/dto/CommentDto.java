@@ -1,10 +1,15 @@
 package com.school.homework.dto;
 
 import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
 import java.time.LocalDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class CommentDto {
     private Long id;
 
@@ -12,6 +17,7 @@ public class CommentDto {
     private String content;
 
     private String authorName;
+    private String authorAvatar;
     private LocalDateTime createdAt;
 }
 
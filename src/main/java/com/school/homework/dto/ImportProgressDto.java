@@ -0,0 +1,31 @@
+package com.school.homework.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * State and running counts of the background Markdown import started with the application.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportProgressDto {
+    /** DISABLED, PENDING, RUNNING, COMPLETED or FAILED. */
+    private String state;
+    private Instant startedAt;
+    private Instant finishedAt;
+    /** Markdown files found; 0 until the listing is done. */
+    private int sources;
+    /** Files handled so far, whatever the outcome. */
+    private int processed;
+    private int imported;
+    private int updated;
+    private int unchanged;
+    private int skipped;
+    private int failed;
+    /** Why the whole import stopped, when state is FAILED. */
+    private String error;
+}
@@ -0,0 +1,68 @@
+package com.school.homework.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Outcome of one Markdown import run: counts, per-file failures and throughput.
+ * Only the import thread writes it; other threads may read it while the import runs to show progress.
+ */
+@Data
+@NoArgsConstructor
+public class ImportReport {
+    private volatile int sources;
+    private volatile int imported;
+    private volatile int updated;
+    /** Sources whose content hash matched the manifest; they are not parsed. */
+    private volatile int unchanged;
+    private volatile int skipped;
+    /** Posts archived because their source disappeared. */
+    private volatile int archived;
+    private List<Failure> failures = new CopyOnWriteArrayList<>();
+    private volatile long elapsedMillis;
+
+    public int getFailed() {
+        return failures.size();
+    }
+
+    /** Sources handled so far, whatever the outcome. */
+    public int getProcessed() {
+        return imported + updated + unchanged + skipped + getFailed();
+    }
+
+    public double getFilesPerSecond() {
+        return elapsedMillis == 0 ? sources : sources * 1000.0 / elapsedMillis;
+    }
+
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    public void addUpdated() {
+        updated++;
+    }
+
+    public void addUnchanged() {
+        unchanged++;
+    }
+
+    public void addSkipped() {
+        skipped++;
+    }
+
+    public void addFailure(String source, String message) {
+        failures.add(new Failure(source, message));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Failure {
+        private String source;
+        private String message;
+    }
+}
@@ -1,11 +1,38 @@
 package com.school.homework.dto;
 
 import lombok.Data;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 @Data
 public class PostSearchCriteria {
     private String query;
     private String tag;
     private String authorUsername;
-}
 
+    // Multi-tag filter, e.g. ?tags=java&tags=spring&tagMatch=any
+    private List<String> tags = new ArrayList<>();
+    private String tagMatch = "all"; // "all" (AND) or "any" (OR)
+
+    /**
+     * Every requested tag name: the legacy single {@code tag} plus {@code tags}, trimmed and de-duplicated.
+     */
+    public Set<String> requestedTags() {
+        Set<String> names = new LinkedHashSet<>();
+        if (StringUtils.hasText(tag)) {
+            names.add(tag.trim());
+        }
+        if (tags != null) {
+            tags.stream().filter(StringUtils::hasText).map(String::trim).forEach(names::add);
+        }
+        return names;
+    }
+
+    public boolean matchesAnyTag() {
+        return "any".equalsIgnoreCase(tagMatch);
+    }
+}
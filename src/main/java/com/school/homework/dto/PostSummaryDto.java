@@ -0,0 +1,37 @@
+package com.school.homework.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read model for one card on the post list. Built by a constructor query so that neither
+ * the Markdown content nor the rendered HTML of a post is ever loaded for the list page.
+ */
+@Data
+@NoArgsConstructor
+public class PostSummaryDto {
+    private Long id;
+    private String title;
+    private String excerpt;
+    private LocalDateTime createdAt;
+    private long viewCount; // Persisted count plus views still buffered in memory
+    private String authorUsername;
+    private String authorAvatar;
+    private List<String> tagNames = new ArrayList<>();
+    private String snippetHtml; // Escaped content window with <mark> highlights; only set for keyword searches
+
+    public PostSummaryDto(Long id, String title, String excerpt, LocalDateTime createdAt, long viewCount,
+                          String authorUsername, String authorAvatar) {
+        this.id = id;
+        this.title = title;
+        this.excerpt = excerpt;
+        this.createdAt = createdAt;
+        this.viewCount = viewCount;
+        this.authorUsername = authorUsername;
+        this.authorAvatar = authorAvatar;
+    }
+}
@@ -0,0 +1,26 @@
+package com.school.homework.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Thread execution mode and virtual-thread pinning observed since startup.
+ * Platform thread counts come from the ThreadMXBean, which does not count virtual threads.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ThreadDiagnosticsDto {
+    private int javaVersion;
+    private boolean virtualThreadsEnabled;
+    private boolean pinningMonitorActive;
+    private int platformThreads;
+    private int peakPlatformThreads;
+    private long pinnedEvents;
+    private long pinnedMillis;
+    /** Most frequent pinning sites (first application frame, else top frame) to event count. */
+    private Map<String, Long> topPinnedSites;
+}
@@ -1,5 +1,6 @@
 package com.school.homework.entity;
 
+import com.school.homework.constant.AppConstants;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -22,7 +23,10 @@ import lombok.AllArgsConstructor;
  * @version 1.0
  */
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+    // 支持按文章取评论并按 id 做游标分页
+    @Index(name = "idx_comments_post_id_id", columnList = "post_id, id")
+})
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
@@ -31,10 +35,11 @@ public class Comment extends BaseEntity {
 
     /**
      * 评论主键ID
-     * 自增主键
+     * 由序列 comments_seq 分配，每次预取一段 ID，见 {@link com.school.homework.config.IdSequenceInitializer}
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = AppConstants.ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -0,0 +1,58 @@
+package com.school.homework.entity;
+
+import com.school.homework.constant.AppConstants;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * 文章导入清单条目
+ *
+ * <p>记录每个已导入的 Markdown 源文件的内容哈希和对应文章，
+ * 再次导入时内容未变的文件不再解析，内容变化的文件更新原文章，
+ * 源文件被删除时可以归档对应文章。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Entity
+@Table(name = "import_manifest")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class ImportManifestEntry extends BaseEntity {
+
+    /**
+     * 条目主键ID
+     * 由序列 import_manifest_seq 分配
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "import_manifest_seq")
+    @SequenceGenerator(name = "import_manifest_seq", sequenceName = "import_manifest_seq",
+            allocationSize = AppConstants.ID_ALLOCATION_SIZE)
+    private Long id;
+
+    /**
+     * 源文件路径（来源前缀 + 文件名），例如 "classpath:posts/markdown-demo.md"
+     */
+    @Column(name = "source_path", unique = true, nullable = false, length = 500)
+    private String sourcePath;
+
+    /**
+     * 源文件内容的 SHA-256（十六进制）
+     */
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    /**
+     * 由该文件创建的文章ID
+     * 标题与已有文章重复而跳过时为空
+     */
+    @Column(name = "post_id")
+    private Long postId;
+
+    public ImportManifestEntry(String sourcePath) {
+        this.sourcePath = sourcePath;
+    }
+}
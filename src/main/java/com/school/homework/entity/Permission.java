@@ -1,9 +1,12 @@
 package com.school.homework.entity;
 
+import com.school.homework.constant.AppConstants;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * 权限实体类
@@ -33,6 +36,8 @@ import lombok.AllArgsConstructor;
  */
 @Entity
 @Table(name = "permissions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "permissions")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -40,10 +45,11 @@ public class Permission {
 
     /**
      * 权限主键ID
-     * 自增主键
+     * 由序列 permissions_seq 分配，每次预取一段 ID，见 {@link com.school.homework.config.IdSequenceInitializer}
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "permissions_seq")
+    @SequenceGenerator(name = "permissions_seq", sequenceName = "permissions_seq", allocationSize = AppConstants.ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
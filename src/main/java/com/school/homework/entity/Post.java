@@ -1,5 +1,6 @@
 package com.school.homework.entity;
 
+import com.school.homework.constant.AppConstants;
 import com.school.homework.enums.PostStatus;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
@@ -9,6 +10,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.util.HashSet;
 import java.util.List;
@@ -30,7 +32,8 @@ import java.util.Set;
  * <p>内容格式：
  * <ul>
  *   <li>content 字段存储 Markdown 格式的原始内容</li>
- *   <li>显示时通过 MarkdownService 渲染为 HTML</li>
+ *   <li>contentHtml 字段存储写入时由 MarkdownService 渲染好的 HTML，详情页直接输出</li>
+ *   <li>excerpt 字段存储写入时截取的摘要，供列表页使用</li>
  * </ul>
  * </p>
  *
@@ -38,19 +41,24 @@ import java.util.Set;
  * @version 1.0
  */
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+    // 支持按 (created_at, id) 做游标分页
+    @Index(name = "idx_posts_created_at_id", columnList = "created_at, id")
+})
 @Data
 @EqualsAndHashCode(callSuper = true, exclude = {"tags", "comments", "author"})
+@ToString(exclude = {"tags", "comments", "author"})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Post extends BaseEntity {
 
     /**
      * 文章主键ID
-     * 自增主键
+     * 由序列 posts_seq 分配，每次预取一段 ID，见 {@link com.school.homework.config.IdSequenceInitializer}
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_seq")
+    @SequenceGenerator(name = "posts_seq", sequenceName = "posts_seq", allocationSize = AppConstants.ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -70,6 +78,27 @@ public class Post extends BaseEntity {
     @NotBlank(message = "Content cannot be empty")
     private String content;
 
+    /**
+     * 渲染后的 HTML 内容
+     * 创建或更新文章时渲染并保存，避免每次查看都重新解析 Markdown
+     */
+    @Column(name = "content_html", columnDefinition = "TEXT")
+    private String contentHtml;
+
+    /**
+     * 渲染器版本
+     * 与 MarkdownService 当前版本不一致（或为空）时，contentHtml 需要重新渲染
+     */
+    @Column(name = "render_version")
+    private Integer renderVersion;
+
+    /**
+     * 内容摘要
+     * 创建或更新文章时由 content 截取（最多150个字符），列表页只读取此字段，不加载完整内容
+     */
+    @Column(length = 150)
+    private String excerpt;
+
     /**
      * 文章状态
      * DRAFT: 草稿
@@ -108,9 +137,9 @@ public class Post extends BaseEntity {
     /**
      * 文章标签集合
      * 多对多关系，通过 post_tags 中间表关联
-     * 使用 PERSIST 和 MERGE 级联，允许新建和更新标签
+     * 不级联：标签由 TagDictionary 创建，这里只维护关联行，可以直接关联字典中的标签副本
      */
-    @ManyToMany(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "post_tags",
         joinColumns = @JoinColumn(name = "post_id"),
@@ -120,23 +149,22 @@ public class Post extends BaseEntity {
 
     /**
      * 添加标签
-     * 同时维护双向关系，确保数据一致性
+     * 只维护拥有方 Post.tags（post_tags 关联行由它写入），不访问 Tag.posts：
+     * 反向集合是懒加载的，访问它会把该标签下的全部文章加载进持久化上下文
      *
      * @param tag 要添加的标签
      */
     public void addTag(Tag tag) {
         this.tags.add(tag);
-        tag.getPosts().add(this);
     }
 
     /**
      * 移除标签
-     * 同时维护双向关系，确保数据一致性
+     * 与 addTag 相同，只维护拥有方
      *
      * @param tag 要移除的标签
      */
     public void removeTag(Tag tag) {
         this.tags.remove(tag);
-        tag.getPosts().remove(this);
     }
 }
@@ -1,9 +1,12 @@
 package com.school.homework.entity;
 
+import com.school.homework.constant.AppConstants;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.Set;
 import java.util.HashSet;
 
@@ -26,13 +29,16 @@ import java.util.HashSet;
  * </ul>
  * </p>
  *
- * <p>注意：权限使用 EAGER 加载，因为 Spring Security 需要立即访问权限信息。</p>
+ * <p>注意：权限使用 EAGER 加载，因为 Spring Security 需要立即访问权限信息。
+ * 角色和权限几乎不变，连同权限集合一起放入二级缓存。</p>
  *
  * @author School Homework Team
  * @version 1.0
  */
 @Entity
 @Table(name = "roles")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "roles")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -40,10 +46,11 @@ public class Role {
 
     /**
      * 角色主键ID
-     * 自增主键
+     * 由序列 roles_seq 分配，每次预取一段 ID，见 {@link com.school.homework.config.IdSequenceInitializer}
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "roles_seq")
+    @SequenceGenerator(name = "roles_seq", sequenceName = "roles_seq", allocationSize = AppConstants.ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -60,6 +67,7 @@ public class Role {
      * 使用 EAGER 加载，因为权限信息在认证时需要立即访问
      */
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "roles.permissions")
     @JoinTable(
         name = "roles_permissions",
         joinColumns = @JoinColumn(name = "role_id"),
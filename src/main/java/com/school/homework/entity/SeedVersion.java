@@ -0,0 +1,46 @@
+package com.school.homework.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * 初始数据版本标记
+ *
+ * <p>记录数据库中已写入的初始数据（默认权限、角色和用户）对应的版本，
+ * 启动时只需一次主键查询即可判断是否需要重新初始化，见 {@link com.school.homework.config.DataInitializer}。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Entity
+@Table(name = "seed_version")
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class SeedVersion extends BaseEntity {
+
+    /**
+     * 初始数据集名称，例如 "core"
+     */
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    /**
+     * 已应用的版本号（{@link com.school.homework.constant.AppConstants#SEED_VERSION}）
+     */
+    @Column(nullable = false)
+    private int version;
+
+    /**
+     * 默认用户配置（用户名、邮箱）的 SHA-256，配置变化时重新初始化
+     */
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    public SeedVersion(String name) {
+        this.name = name;
+    }
+}
@@ -1,10 +1,13 @@
 package com.school.homework.entity;
 
+import com.school.homework.constant.AppConstants;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -25,6 +28,7 @@ import java.util.Set;
  * <ul>
  *   <li>标签名称唯一，避免重复</li>
  *   <li>标签名称不区分大小写（在业务逻辑中处理）</li>
+ *   <li>标签实体进入二级缓存；文章关联的标签集合不缓存</li>
  * </ul>
  * </p>
  *
@@ -33,6 +37,8 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "tags")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tags")
 @Data
 @EqualsAndHashCode(callSuper = true, exclude = {"posts"})
 @NoArgsConstructor
@@ -40,10 +46,11 @@ public class Tag extends BaseEntity {
 
     /**
      * 标签主键ID
-     * 自增主键
+     * 由序列 tags_seq 分配，每次预取一段 ID，见 {@link com.school.homework.config.IdSequenceInitializer}
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tags_seq")
+    @SequenceGenerator(name = "tags_seq", sequenceName = "tags_seq", allocationSize = AppConstants.ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -58,6 +65,7 @@ public class Tag extends BaseEntity {
     /**
      * 使用该标签的文章集合
      * 多对多关系的反向端，由 Post 实体维护关系
+     * 注意：Post.addTag 不会同步此集合，需要时应通过查询获取
      */
     @ManyToMany(mappedBy = "tags")
     private Set<Post> posts = new HashSet<>();
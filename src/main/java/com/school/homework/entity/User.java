@@ -1,5 +1,6 @@
 package com.school.homework.entity;
 
+import com.school.homework.constant.AppConstants;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -8,6 +9,8 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.List;
 import java.util.Set;
 import java.util.HashSet;
@@ -29,6 +32,7 @@ import java.util.HashSet;
  * <ul>
  *   <li>密码使用 BCrypt 加密存储，不在实体类中加密</li>
  *   <li>角色使用 EAGER 加载，因为 Spring Security 需要立即访问</li>
+ *   <li>用户及其角色集合进入二级缓存，登录和权限检查不必每次查库</li>
  * </ul>
  * </p>
  *
@@ -37,6 +41,8 @@ import java.util.HashSet;
  */
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users")
 @Data
 @EqualsAndHashCode(callSuper = true, exclude = {"posts", "roles"})
 @NoArgsConstructor
@@ -45,10 +51,11 @@ public class User extends BaseEntity {
 
     /**
      * 用户主键ID
-     * 自增主键
+     * 由序列 users_seq 分配，每次预取一段 ID，见 {@link com.school.homework.config.IdSequenceInitializer}
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = AppConstants.ID_ALLOCATION_SIZE)
     private Long id;
 
     /**
@@ -96,8 +103,10 @@ public class User extends BaseEntity {
      * 用户拥有的角色集合
      * 多对多关系，通过 users_roles 中间表关联
      * 使用 EAGER 加载，因为 Spring Security 需要立即访问角色信息
+     * 集合（角色ID列表）同样缓存在二级缓存中
      */
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "users.roles")
     @JoinTable(
         name = "users_roles",
         joinColumns = @JoinColumn(name = "user_id"),
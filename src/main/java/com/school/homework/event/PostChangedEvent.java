@@ -0,0 +1,69 @@
+package com.school.homework.event;
+
+import com.school.homework.entity.Post;
+import com.school.homework.entity.Tag;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 文章变更事件
+ *
+ * <p>文章创建、更新或删除后由 PostServiceImpl 发布，事务提交后由监听者处理
+ * （例如更新全文索引和标签索引）。事件自带标题、内容和标签，监听者无需再查询数据库。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Getter
+public class PostChangedEvent {
+
+    /** 文章ID */
+    private final Long postId;
+
+    /** 文章标题（删除事件为 null） */
+    private final String title;
+
+    /** 文章 Markdown 内容（删除事件为 null） */
+    private final String content;
+
+    /** 作者ID（删除事件为 null） */
+    private final Long authorId;
+
+    /** 创建时间，即列表排序键（删除事件为 null） */
+    private final LocalDateTime createdAt;
+
+    /** 文章当前的标签（ID → 名称，删除事件为空） */
+    private final Map<Long, String> tags;
+
+    /** 是否为删除事件 */
+    private final boolean deleted;
+
+    private PostChangedEvent(Long postId, String title, String content, Long authorId, LocalDateTime createdAt,
+                             Map<Long, String> tags, boolean deleted) {
+        this.postId = postId;
+        this.title = title;
+        this.content = content;
+        this.authorId = authorId;
+        this.createdAt = createdAt;
+        this.tags = tags;
+        this.deleted = deleted;
+    }
+
+    public static PostChangedEvent saved(Post post) {
+        Map<Long, String> tags = new HashMap<>();
+        for (Tag tag : post.getTags()) {
+            tags.put(tag.getId(), tag.getName());
+        }
+        Long authorId = post.getAuthor() == null ? null : post.getAuthor().getId();
+        return new PostChangedEvent(post.getId(), post.getTitle(), post.getContent(), authorId, post.getCreatedAt(),
+                tags, false);
+    }
+
+    public static PostChangedEvent deleted(Long postId) {
+        return new PostChangedEvent(postId, null, null, null, null, Collections.emptyMap(), true);
+    }
+}
@@ -2,11 +2,15 @@ package com.school.homework.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
+import jakarta.servlet.http.HttpServletResponse;
 import java.time.LocalDateTime;
 
 @ControllerAdvice
@@ -26,6 +30,15 @@ public class GlobalExceptionHandler {
         return buildErrorPage(model, "409 Conflict", e.getMessage(), "error/409");
     }
 
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public String handlePasswordHashingBusyException(PasswordHashingBusyException e, HttpServletResponse response,
+                                                     Model model) {
+        logger.warn("Password hashing saturated: {}", e.getMessage());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        return buildErrorPage(model, "503 Service Unavailable", e.getMessage(), "error/503");
+    }
+
     @ExceptionHandler(org.springframework.security.access.AccessDeniedException.class)
     public String handleAccessDeniedException(org.springframework.security.access.AccessDeniedException e, Model model) {
         logger.warn("Access denied: {}", e.getMessage());
@@ -0,0 +1,29 @@
+package com.school.homework.exception;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * 密码哈希繁忙异常
+ *
+ * <p>哈希线程池的等待队列已满时抛出，请求以 HTTP 503 + Retry-After 响应，
+ * 而不是排在其他登录请求后面继续等待。</p>
+ *
+ * <p>继承 AuthenticationServiceException：登录时遇到它会交给表单登录的失败处理器，
+ * 不会从过滤器链中逃逸。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+
+    private final int retryAfterSeconds;
+
+    public PasswordHashingBusyException(int retryAfterSeconds) {
+        super("Too many password checks in progress, please retry shortly");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,414 @@
+package com.school.homework.search;
+
+import com.school.homework.dao.PostRepository;
+import com.school.homework.dao.projection.PostTextView;
+import com.school.homework.event.PostChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 文章全文倒排索引
+ *
+ * <p>在进程内维护 词项 → (文章ID → 词频和位置) 的倒排表，覆盖文章标题和内容。
+ * 搜索时只需取出查询词项对应的倒排列表求交集，耗时与文章总数无关，
+ * 取代原来对 TEXT 列的 {@code LIKE '%q%'} 全表扫描。</p>
+ *
+ * <p>排序与摘要：
+ * <ul>
+ *   <li>命中结果按 BM25 打分排序，标题中的词频按 title-boost 加权（BM25F）</li>
+ *   <li>索引同时记录每篇文章的作者ID，作者条件在打分之前直接过滤，不需要把命中ID交给数据库</li>
+ *   <li>索引记录每个词项在内容中的字符区间，摘要窗口直接由这些位置计算，
+ *       调用方只需按窗口截取那一小段内容，无需重新扫描全文</li>
+ * </ul>
+ * </p>
+ *
+ * <p>生命周期：
+ * <ul>
+ *   <li>应用就绪后在后台线程中分批从数据库读取全部文章建立索引，不推迟就绪状态</li>
+ *   <li>之后根据 PostChangedEvent 在事务提交后增量更新</li>
+ *   <li>索引建好之前 {@link #isReady()} 返回 false，搜索回退到数据库 LIKE 查询</li>
+ * </ul>
+ * </p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Component
+public class PostSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostSearchIndex.class);
+
+    /** BM25 term frequency saturation */
+    private static final double K1 = 1.2;
+
+    /** BM25 document length normalization */
+    private static final double B = 0.75;
+
+    private final PostRepository postRepository;
+
+    /** 启动时每批读取的文章数量 */
+    private final int batchSize;
+
+    /** 标题词频的权重 */
+    private final double titleBoost;
+
+    // Everything below is guarded by lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<Long, Posting>> postings = new HashMap<>();
+    private final Map<Long, DocumentInfo> documents = new HashMap<>();
+    private long totalTitleLength;
+    private long totalContentLength;
+
+    // Posts changed by events while the initial build runs; their database snapshot may be older
+    private final Set<Long> changedDuringBuild = new HashSet<>();
+
+    private volatile boolean ready;
+
+    public PostSearchIndex(PostRepository postRepository,
+                           @Value("${app.search.index.batch-size:500}") int batchSize,
+                           @Value("${app.search.title-boost:3.0}") double titleBoost) {
+        this.postRepository = postRepository;
+        this.batchSize = batchSize;
+        this.titleBoost = titleBoost;
+    }
+
+    /**
+     * 建立索引（启动后由 StartupIndexBuild 在后台线程调用）
+     */
+    public void build() {
+        long start = System.currentTimeMillis();
+        int count = 0;
+        try {
+            Long afterId = 0L;
+            List<PostTextView> batch;
+            do {
+                batch = postRepository.findTextBatch(afterId, PageRequest.of(0, batchSize));
+                lock.writeLock().lock();
+                try {
+                    for (PostTextView post : batch) {
+                        if (!changedDuringBuild.contains(post.getId())) {
+                            put(post.getId(), post.getAuthorId(), post.getTitle(), post.getContent());
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                count += batch.size();
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == batchSize);
+        } catch (Exception e) {
+            // Stay not ready: searches keep using the database
+            logger.error("Building the post search index failed after {} posts", count, e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changedDuringBuild.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed {} posts ({} terms) in {} ms.", count, termCount(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 文章变更后增量更新索引（事务提交后执行，回滚的修改不会进入索引）
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.isDeleted()) {
+                remove(event.getPostId());
+            } else {
+                put(event.getPostId(), event.getAuthorId(), event.getTitle(), event.getContent());
+            }
+            if (!ready) {
+                changedDuringBuild.add(event.getPostId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 查找标题或内容包含全部查询词项的文章，按相关度从高到低排序
+     *
+     * @param query 搜索关键词
+     * @return 命中结果（相关度相同时新文章在前）；查询没有可用词项时为空列表
+     */
+    public List<SearchHit> search(String query) {
+        return search(query, null);
+    }
+
+    /**
+     * 查找指定作者的文章中标题或内容包含全部查询词项的文章，按相关度从高到低排序
+     *
+     * @param query    搜索关键词
+     * @param authorId 作者ID，null 表示不限作者
+     * @return 命中结果（相关度相同时新文章在前）；查询没有可用词项时为空列表
+     */
+    public List<SearchHit> search(String query, Long authorId) {
+        Set<String> terms = TextTokenizer.queryTerms(query);
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Posting>> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Map<Long, Posting> list = postings.get(term);
+                if (list == null) {
+                    return Collections.emptyList();
+                }
+                lists.add(list);
+            }
+            // Intersect starting from the rarest term so the working set stays small
+            lists.sort(Comparator.comparingInt(Map::size));
+            Set<Long> matches = new HashSet<>(lists.get(0).keySet());
+            for (int i = 1; i < lists.size() && !matches.isEmpty(); i++) {
+                matches.retainAll(lists.get(i).keySet());
+            }
+            if (authorId != null) {
+                matches.removeIf(postId -> !authorId.equals(documents.get(postId).authorId));
+            }
+
+            List<SearchHit> hits = new ArrayList<>(matches.size());
+            for (Long postId : matches) {
+                hits.add(new SearchHit(postId, score(postId, lists)));
+            }
+            hits.sort(Comparator.comparingDouble(SearchHit::getScore).reversed()
+                    .thenComparing(SearchHit::getPostId, Comparator.reverseOrder()));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 计算文章内容中与查询最匹配的摘要窗口
+     *
+     * <p>窗口选择覆盖查询词项种类最多、其次出现次数最多的区域，只使用索引中记录的位置。</p>
+     *
+     * @param postId 文章ID
+     * @param query  搜索关键词
+     * @param width  窗口宽度（字符数）
+     * @return 摘要窗口；内容中没有命中（例如只命中标题）时返回 null
+     */
+    public SnippetWindow snippet(Long postId, String query, int width) {
+        List<String> terms = new ArrayList<>(TextTokenizer.queryTerms(query));
+
+        lock.readLock().lock();
+        try {
+            DocumentInfo document = documents.get(postId);
+            if (document == null) {
+                return null;
+            }
+            // Occurrences as {start, end, term index}, ordered by start offset
+            List<int[]> occurrences = new ArrayList<>();
+            for (int t = 0; t < terms.size(); t++) {
+                Map<Long, Posting> list = postings.get(terms.get(t));
+                Posting posting = list == null ? null : list.get(postId);
+                if (posting == null) {
+                    continue;
+                }
+                int[] spans = posting.contentSpans;
+                for (int k = 0; k < spans.length; k += 2) {
+                    occurrences.add(new int[]{spans[k], spans[k + 1], t});
+                }
+            }
+            if (occurrences.isEmpty()) {
+                return null;
+            }
+            occurrences.sort(Comparator.comparingInt(o -> o[0]));
+            return bestWindow(occurrences, terms.size(), width, document.contentChars);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * BM25F：标题和内容的词频、长度按 titleBoost 加权合并后套用 BM25 公式
+     */
+    private double score(Long postId, List<Map<Long, Posting>> lists) {
+        DocumentInfo document = documents.get(postId);
+        int n = documents.size();
+        double averageLength = (titleBoost * totalTitleLength + totalContentLength) / Math.max(1, n);
+        double length = titleBoost * document.titleLength + document.contentLength;
+        double normalization = K1 * (1 - B + B * length / Math.max(1.0, averageLength));
+
+        double score = 0;
+        for (Map<Long, Posting> list : lists) {
+            Posting posting = list.get(postId);
+            double tf = titleBoost * posting.titleFrequency + posting.contentSpans.length / 2;
+            double idf = Math.log(1 + (n - list.size() + 0.5) / (list.size() + 0.5));
+            score += idf * tf * (K1 + 1) / (tf + normalization);
+        }
+        return score;
+    }
+
+    private static SnippetWindow bestWindow(List<int[]> occurrences, int termCount, int width, int contentChars) {
+        int[] counts = new int[termCount];
+        int distinct = 0;
+        int bestLeft = 0;
+        int bestRight = 0;
+        long bestRank = -1;
+        int left = 0;
+        for (int right = 0; right < occurrences.size(); right++) {
+            if (counts[occurrences.get(right)[2]]++ == 0) {
+                distinct++;
+            }
+            while (left < right && occurrences.get(right)[1] - occurrences.get(left)[0] > width) {
+                if (--counts[occurrences.get(left)[2]] == 0) {
+                    distinct--;
+                }
+                left++;
+            }
+            // Prefer more distinct terms, then more occurrences
+            long rank = (long) distinct * occurrences.size() + (right - left + 1);
+            if (rank > bestRank) {
+                bestRank = rank;
+                bestLeft = left;
+                bestRight = right;
+            }
+        }
+
+        // Centre the matched span in the window, then clamp to the content
+        int spanStart = occurrences.get(bestLeft)[0];
+        int spanEnd = Math.max(spanStart, occurrences.get(bestRight)[1]);
+        int slack = Math.max(0, width - (spanEnd - spanStart));
+        int start = Math.max(0, spanStart - slack / 2);
+        int end = Math.min(contentChars, start + width);
+        start = Math.max(0, Math.min(start, end - width));
+
+        List<int[]> highlights = new ArrayList<>();
+        for (int[] occurrence : occurrences) {
+            if (occurrence[0] >= start && occurrence[1] <= end) {
+                highlights.add(new int[]{occurrence[0], occurrence[1]});
+            }
+        }
+        return new SnippetWindow(start, end, contentChars, highlights);
+    }
+
+    private void put(Long postId, Long authorId, String title, String content) {
+        remove(postId);
+
+        List<TextTokenizer.Token> titleTokens = TextTokenizer.tokenize(title);
+        List<TextTokenizer.Token> contentTokens = TextTokenizer.tokenize(content);
+        Map<String, Integer> titleFrequencies = new HashMap<>();
+        for (TextTokenizer.Token token : titleTokens) {
+            titleFrequencies.merge(token.getTerm(), 1, Integer::sum);
+        }
+        Map<String, List<TextTokenizer.Token>> contentOccurrences = new HashMap<>();
+        for (TextTokenizer.Token token : contentTokens) {
+            contentOccurrences.computeIfAbsent(token.getTerm(), t -> new ArrayList<>()).add(token);
+        }
+
+        Set<String> terms = new HashSet<>(titleFrequencies.keySet());
+        terms.addAll(contentOccurrences.keySet());
+        for (String term : terms) {
+            List<TextTokenizer.Token> occurrences = contentOccurrences.getOrDefault(term, Collections.emptyList());
+            int[] spans = new int[occurrences.size() * 2];
+            for (int k = 0; k < occurrences.size(); k++) {
+                spans[2 * k] = occurrences.get(k).getStart();
+                spans[2 * k + 1] = occurrences.get(k).getEnd();
+            }
+            postings.computeIfAbsent(term, t -> new HashMap<>())
+                    .put(postId, new Posting(titleFrequencies.getOrDefault(term, 0), spans));
+        }
+
+        DocumentInfo document = new DocumentInfo(authorId, terms, titleTokens.size(), contentTokens.size(),
+                content == null ? 0 : content.length());
+        documents.put(postId, document);
+        totalTitleLength += document.titleLength;
+        totalContentLength += document.contentLength;
+    }
+
+    private void remove(Long postId) {
+        DocumentInfo document = documents.remove(postId);
+        if (document == null) {
+            return;
+        }
+        totalTitleLength -= document.titleLength;
+        totalContentLength -= document.contentLength;
+        for (String term : document.terms) {
+            Map<Long, Posting> list = postings.get(term);
+            if (list != null) {
+                list.remove(postId);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /** 某个词项在一篇文章中的出现情况 */
+    private static final class Posting {
+        final int titleFrequency;
+        /** Content occurrences as consecutive [start, end) character offsets */
+        final int[] contentSpans;
+
+        Posting(int titleFrequency, int[] contentSpans) {
+            this.titleFrequency = titleFrequency;
+            this.contentSpans = contentSpans;
+        }
+    }
+
+    /** 文章级统计信息 */
+    private static final class DocumentInfo {
+        final Long authorId;
+        final Set<String> terms;
+        final int titleLength;
+        final int contentLength;
+        final int contentChars;
+
+        DocumentInfo(Long authorId, Set<String> terms, int titleLength, int contentLength, int contentChars) {
+            this.authorId = authorId;
+            this.terms = terms;
+            this.titleLength = titleLength;
+            this.contentLength = contentLength;
+            this.contentChars = contentChars;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.school.homework.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A post matching a search query together with its BM25 relevance score.
+ */
+@Getter
+@AllArgsConstructor
+public class SearchHit {
+    private final Long postId;
+    private final double score;
+}
@@ -0,0 +1,74 @@
+package com.school.homework.search;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 搜索摘要高亮
+ *
+ * <p>把摘要窗口内的文本转义为 HTML，并用 {@code <mark>} 标出命中的词项。
+ * 中文 bigram 的命中区间会相互重叠，输出前先合并。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+public final class SnippetHighlighter {
+
+    private static final String ELLIPSIS = "...";
+
+    private SnippetHighlighter() {
+        // Prevent instantiation
+    }
+
+    /**
+     * @param text   窗口内的内容文本（从 window.start 开始）
+     * @param window 摘要窗口
+     * @return 已转义、带高亮标记的 HTML 片段
+     */
+    public static String toHtml(String text, SnippetWindow window) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder html = new StringBuilder();
+        if (window.getStart() > 0) {
+            html.append(ELLIPSIS);
+        }
+
+        int cursor = 0;
+        for (int[] range : merge(window.getHighlights())) {
+            // Offsets are relative to content as indexed; clamp in case it changed since
+            int from = Math.max(cursor, Math.min(text.length(), range[0] - window.getStart()));
+            int to = Math.min(text.length(), range[1] - window.getStart());
+            if (from >= to) {
+                continue;
+            }
+            html.append(HtmlUtils.htmlEscape(text.substring(cursor, from)));
+            html.append("<mark>").append(HtmlUtils.htmlEscape(text.substring(from, to))).append("</mark>");
+            cursor = to;
+        }
+        html.append(HtmlUtils.htmlEscape(text.substring(cursor)));
+
+        if (window.getEnd() < window.getContentLength()) {
+            html.append(ELLIPSIS);
+        }
+        return html.toString();
+    }
+
+    private static List<int[]> merge(List<int[]> ranges) {
+        List<int[]> sorted = new ArrayList<>(ranges);
+        sorted.sort(Comparator.comparingInt(r -> r[0]));
+        List<int[]> merged = new ArrayList<>();
+        for (int[] range : sorted) {
+            int[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && range[0] <= last[1]) {
+                last[1] = Math.max(last[1], range[1]);
+            } else {
+                merged.add(new int[]{range[0], range[1]});
+            }
+        }
+        return merged;
+    }
+}
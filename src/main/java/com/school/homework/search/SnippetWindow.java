@@ -0,0 +1,23 @@
+package com.school.homework.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * The best-matching window [start, end) of a post's content for a query, computed from the
+ * term positions stored in the index. Highlight ranges are absolute content offsets.
+ */
+@Getter
+@AllArgsConstructor
+public class SnippetWindow {
+    private final int start;
+    private final int end;
+    private final int contentLength;
+    private final List<int[]> highlights;
+
+    public int length() {
+        return end - start;
+    }
+}
@@ -0,0 +1,326 @@
+package com.school.homework.search;
+
+import com.school.homework.dao.PostRepository;
+import com.school.homework.dao.projection.PostKeyView;
+import com.school.homework.dao.projection.PostTagLinkView;
+import com.school.homework.dto.PostCursor;
+import com.school.homework.event.PostChangedEvent;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 标签 → 文章 位图索引
+ *
+ * <p>每个标签ID对应一个压缩位图（RoaringBitmap），记录带有该标签的文章ID。
+ * 多标签过滤（全部匹配 AND / 任一匹配 OR）在内存中做位图交并运算得到候选文章ID，
+ * 不再访问 post_tags 中间表。</p>
+ *
+ * <p>位图旁边保存每篇文章的列表排序键 (createdAt, id) 和作者ID，候选文章直接在内存中
+ * 按作者过滤、排序并截取当页（页码分页或游标分页），总数由过滤后的候选数得到。
+ * 只有当页的文章ID会发给数据库，候选集合再大也不会变成 SQL 里的 IN 列表。</p>
+ *
+ * <p>维护方式与 PostSearchIndex 相同：启动完成后在后台从 posts 和 post_tags 分批加载，
+ * 之后根据 PostChangedEvent（携带文章保存后的标签、创建时间和作者）在事务提交后增量更新。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Component
+public class TagPostIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagPostIndex.class);
+
+    /** 列表顺序：(createdAt DESC, id DESC) */
+    private static final Comparator<PostKey> NEWEST_FIRST = Comparator.comparing((PostKey key) -> key.createdAt)
+            .thenComparingLong(key -> key.id)
+            .reversed();
+
+    private final PostRepository postRepository;
+
+    /** 启动时每批读取的关联行数量 */
+    private final int batchSize;
+
+    // Everything below is guarded by lock
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Long> tagIds = new HashMap<>();
+    private final Map<Long, Roaring64Bitmap> postsByTag = new HashMap<>();
+    private final Map<Long, Set<Long>> tagsByPost = new HashMap<>();
+    private final Map<Long, PostKey> keys = new HashMap<>();
+
+    // Posts changed by events while the initial build runs; their database snapshot may be older
+    private final Set<Long> changedDuringBuild = new HashSet<>();
+
+    private volatile boolean ready;
+
+    public TagPostIndex(PostRepository postRepository,
+                        @Value("${app.search.index.batch-size:500}") int batchSize) {
+        this.postRepository = postRepository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 加载全部文章的排序键和全部文章-标签关联（启动后由 StartupIndexBuild 在后台线程调用）
+     */
+    public void build() {
+        long start = System.currentTimeMillis();
+        int count = 0;
+        try {
+            long afterId = 0;
+            List<PostKeyView> keyBatch;
+            do {
+                keyBatch = postRepository.findKeyBatch(afterId, PageRequest.of(0, batchSize));
+                lock.writeLock().lock();
+                try {
+                    for (PostKeyView key : keyBatch) {
+                        if (!changedDuringBuild.contains(key.getId())) {
+                            keys.put(key.getId(), new PostKey(key.getId(), key.getCreatedAt(), key.getAuthorId()));
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                if (!keyBatch.isEmpty()) {
+                    afterId = keyBatch.get(keyBatch.size() - 1).getId();
+                }
+            } while (keyBatch.size() == batchSize);
+
+            long afterPostId = 0;
+            long afterTagId = 0;
+            List<PostTagLinkView> batch;
+            do {
+                batch = postRepository.findTagLinkBatch(afterPostId, afterTagId, PageRequest.of(0, batchSize));
+                lock.writeLock().lock();
+                try {
+                    for (PostTagLinkView link : batch) {
+                        if (!changedDuringBuild.contains(link.getPostId())) {
+                            link(link.getPostId(), link.getTagId(), link.getTagName());
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                count += batch.size();
+                if (!batch.isEmpty()) {
+                    PostTagLinkView last = batch.get(batch.size() - 1);
+                    afterPostId = last.getPostId();
+                    afterTagId = last.getTagId();
+                }
+            } while (batch.size() == batchSize);
+        } catch (Exception e) {
+            // Stay not ready: tag filters keep using the join table
+            logger.error("Building the tag index failed after {} links", count, e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changedDuringBuild.clear();
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed {} post-tag links in {} ms.", count, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 文章标签变化或文章删除后更新位图（事务提交后执行）
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            unlinkAll(event.getPostId());
+            event.getTags().forEach((tagId, tagName) -> link(event.getPostId(), tagId, tagName));
+            if (event.isDeleted()) {
+                keys.remove(event.getPostId());
+            } else {
+                keys.put(event.getPostId(), new PostKey(event.getPostId(), event.getCreatedAt(), event.getAuthorId()));
+            }
+            if (!ready) {
+                changedDuringBuild.add(event.getPostId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 计算满足标签条件的文章ID
+     *
+     * @param tagNames 标签名称
+     * @param any      true 表示任一标签匹配（OR），false 表示全部匹配（AND）
+     * @return 候选文章ID位图（调用方可自由修改的副本）
+     */
+    public Roaring64Bitmap match(Collection<String> tagNames, boolean any) {
+        Roaring64Bitmap result = null;
+        lock.readLock().lock();
+        try {
+            for (String name : tagNames) {
+                Long tagId = tagIds.get(name);
+                Roaring64Bitmap posts = tagId == null ? null : postsByTag.get(tagId);
+                if (posts == null) {
+                    if (!any) {
+                        // An unknown tag can never be matched by every post
+                        return new Roaring64Bitmap();
+                    }
+                    continue;
+                }
+                if (result == null) {
+                    result = posts.clone();
+                } else if (any) {
+                    result.or(posts);
+                } else {
+                    result.and(posts);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result == null ? new Roaring64Bitmap() : result;
+    }
+
+    /**
+     * 按列表顺序对候选文章做页码分页，总数为过滤后的候选数，不访问数据库
+     *
+     * @param candidates 候选文章ID
+     * @param authorId   作者ID，null 表示不限作者
+     * @param pageable   页码和页大小（排序固定为 createdAt 倒序、id 倒序）
+     * @return 当页文章ID
+     */
+    public Page<Long> findIdPage(Roaring64Bitmap candidates, Long authorId, Pageable pageable) {
+        long end = pageable.getOffset() + pageable.getPageSize();
+        Selection selection = select(candidates, authorId, key -> true, NEWEST_FIRST,
+                (int) Math.min(end, Integer.MAX_VALUE));
+        List<PostKey> top = selection.top;
+        int from = (int) Math.min(pageable.getOffset(), top.size());
+        List<Long> ids = top.subList(from, top.size()).stream().map(key -> key.id).toList();
+        return new PageImpl<>(ids, pageable, selection.matched);
+    }
+
+    /**
+     * 按列表顺序从游标处定位候选文章，与 PostRepositoryCustom#findKeysetPage 的约定相同
+     *
+     * @param candidates 候选文章ID
+     * @param authorId   作者ID，null 表示不限作者
+     * @param cursor     定位起点，null 表示从最新的文章开始
+     * @param backward   true 表示取游标之前（更新）的文章，离游标最近的在前
+     * @param limit      最多返回的数量
+     */
+    public List<PostCursor> findKeysetPage(Roaring64Bitmap candidates, Long authorId, PostCursor cursor,
+                                           boolean backward, int limit) {
+        Predicate<PostKey> beyondCursor = key -> true;
+        if (cursor != null) {
+            PostKey at = new PostKey(cursor.getId(), cursor.getCreatedAt(), null);
+            beyondCursor = backward
+                    ? key -> NEWEST_FIRST.compare(key, at) < 0
+                    : key -> NEWEST_FIRST.compare(key, at) > 0;
+        }
+        Comparator<PostKey> order = backward ? NEWEST_FIRST.reversed() : NEWEST_FIRST;
+        return select(candidates, authorId, beyondCursor, order, limit).top.stream()
+                .map(key -> new PostCursor(key.createdAt, key.id))
+                .toList();
+    }
+
+    /**
+     * 取出满足条件的候选中按 order 排在最前的 limit 个，只维护大小为 limit 的堆，不对全部候选排序
+     */
+    private Selection select(Roaring64Bitmap candidates, Long authorId, Predicate<PostKey> filter,
+                             Comparator<PostKey> order, int limit) {
+        // Head is the worst key kept so far
+        PriorityQueue<PostKey> heap = new PriorityQueue<>(order.reversed());
+        long matched = 0;
+        lock.readLock().lock();
+        try {
+            LongIterator ids = candidates.getLongIterator();
+            while (ids.hasNext()) {
+                PostKey key = keys.get(ids.next());
+                if (key == null || key.createdAt == null || (authorId != null && !authorId.equals(key.authorId))
+                        || !filter.test(key)) {
+                    continue;
+                }
+                matched++;
+                if (heap.size() < limit) {
+                    heap.add(key);
+                } else if (!heap.isEmpty() && order.compare(key, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(key);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<PostKey> top = new ArrayList<>(heap);
+        top.sort(order);
+        return new Selection(top, matched);
+    }
+
+    private void link(Long postId, Long tagId, String tagName) {
+        tagIds.put(tagName, tagId);
+        postsByTag.computeIfAbsent(tagId, id -> new Roaring64Bitmap()).add(postId.longValue());
+        tagsByPost.computeIfAbsent(postId, id -> new HashSet<>()).add(tagId);
+    }
+
+    private void unlinkAll(Long postId) {
+        Set<Long> tags = tagsByPost.remove(postId);
+        if (tags == null) {
+            return;
+        }
+        for (Long tagId : tags) {
+            Roaring64Bitmap posts = postsByTag.get(tagId);
+            if (posts != null) {
+                posts.removeLong(postId);
+            }
+        }
+    }
+
+    /** select 的结果：排在最前的候选和满足条件的候选总数 */
+    private static final class Selection {
+        final List<PostKey> top;
+        final long matched;
+
+        Selection(List<PostKey> top, long matched) {
+            this.top = top;
+            this.matched = matched;
+        }
+    }
+
+    /** 文章的列表排序键和作者 */
+    private static final class PostKey {
+        final long id;
+        final LocalDateTime createdAt;
+        final Long authorId;
+
+        PostKey(long id, LocalDateTime createdAt, Long authorId) {
+            this.id = id;
+            this.createdAt = createdAt;
+            this.authorId = authorId;
+        }
+    }
+}
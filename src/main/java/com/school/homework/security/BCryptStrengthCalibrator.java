@@ -0,0 +1,52 @@
+package com.school.homework.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt 强度校准
+ *
+ * <p>启动时在本机测量最低强度下一次哈希的耗时，再按“强度每加 1 耗时翻倍”
+ * 推算出不超过目标耗时的最大强度。结果限制在 [minStrength, maxStrength] 之间，
+ * 因此在慢机器上也不会低于最低强度。</p>
+ *
+ * <p>已存储的哈希自带强度，修改强度不影响旧密码校验，只影响之后新生成的哈希。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+public final class BCryptStrengthCalibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BCryptStrengthCalibrator.class);
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample";
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    /**
+     * @param targetMillis 单次哈希的目标耗时（毫秒）
+     * @param minStrength  最低强度
+     * @param maxStrength  最高强度
+     * @return 校准后的强度
+     */
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minStrength);
+        // First run warms up the JIT and is not measured
+        encoder.encode(SAMPLE_PASSWORD);
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+        double measuredMillis = Math.max((System.nanoTime() - start) / 1_000_000.0, 0.01);
+
+        int strength = minStrength;
+        double estimatedMillis = measuredMillis;
+        while (strength < maxStrength && estimatedMillis * 2 <= targetMillis) {
+            strength++;
+            estimatedMillis *= 2;
+        }
+        logger.info("BCrypt strength {} measured {} ms; using strength {} (~{} ms, target {} ms).",
+                minStrength, Math.round(measuredMillis), strength, Math.round(estimatedMillis), targetMillis);
+        return strength;
+    }
+}
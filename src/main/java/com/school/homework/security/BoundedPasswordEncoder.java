@@ -0,0 +1,99 @@
+package com.school.homework.security;
+
+import com.school.homework.exception.PasswordHashingBusyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 限流的密码编码器
+ *
+ * <p>BCrypt 的 encode/matches 是纯 CPU 计算。这里把它们交给固定大小（默认等于 CPU 核数）
+ * 的哈希线程池执行，等待队列有上限：
+ * <ul>
+ *   <li>同时进行的哈希计算不超过核数，大量登录不会占满所有 CPU，其他请求仍能得到处理</li>
+ *   <li>队列满时立即抛出 PasswordHashingBusyException（HTTP 503 + Retry-After），
+ *       而不是让请求线程越积越多直到整个站点无响应</li>
+ * </ul>
+ * </p>
+ *
+ * <p>请求线程仍需等待哈希结果，但等待的请求数量受队列长度限制。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final int retryAfterSeconds;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, int retryAfterSeconds) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /** 正在执行和排队中的哈希任务数量 */
+    public int getPendingCount() {
+        return executor.getActiveCount() + executor.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingBusyException(retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+}
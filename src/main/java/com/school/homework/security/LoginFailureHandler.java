@@ -0,0 +1,38 @@
+package com.school.homework.security;
+
+import com.school.homework.exception.PasswordHashingBusyException;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
+
+import java.io.IOException;
+
+/**
+ * 登录失败处理器
+ *
+ * <p>用户名或密码错误时照常重定向到 /login?error；
+ * 密码哈希线程池已满时返回 503 和 Retry-After，提示稍后重试。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+public class LoginFailureHandler extends SimpleUrlAuthenticationFailureHandler {
+
+    public LoginFailureHandler(String defaultFailureUrl) {
+        super(defaultFailureUrl);
+    }
+
+    @Override
+    public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+                                        AuthenticationException exception) throws IOException, ServletException {
+        if (exception instanceof PasswordHashingBusyException busy) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(busy.getRetryAfterSeconds()));
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, busy.getMessage());
+            return;
+        }
+        super.onAuthenticationFailure(request, response, exception);
+    }
+}
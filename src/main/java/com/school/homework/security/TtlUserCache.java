@@ -0,0 +1,160 @@
+package com.school.homework.security;
+
+import com.school.homework.dto.CacheStatsDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 带过期时间的用户认证信息缓存
+ *
+ * <p>由 DaoAuthenticationProvider 在认证前查询：命中时不再调用
+ * CustomUserDetailsService，也就不再查询 users/roles/permissions。
+ * 缓存项保存用户名、密码哈希和预先计算好的不可变权限集合。</p>
+ *
+ * <p>失效方式：
+ * <ul>
+ *   <li>超过 app.security.user-cache.ttl-seconds 后自动过期</li>
+ *   <li>修改密码、资料或角色时显式失效（事务结束后再失效一次，避免并发登录读回旧数据）</li>
+ *   <li>缓存中密码不匹配时，DaoAuthenticationProvider 会重新从数据库加载</li>
+ * </ul>
+ * </p>
+ *
+ * <p>每次返回新的 UserDetails 副本：认证成功后 ProviderManager 会擦除凭证，
+ * 直接返回缓存对象会把缓存中的密码哈希清空。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Component
+public class TtlUserCache implements UserCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final Clock clock;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @Autowired
+    public TtlUserCache(@Value("${app.security.user-cache.ttl-seconds:300}") long ttlSeconds,
+                        @Value("${app.security.user-cache.max-entries:10000}") int maxEntries) {
+        this(ttlSeconds, maxEntries, Clock.systemUTC());
+    }
+
+    TtlUserCache(long ttlSeconds, int maxEntries, Clock clock) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        Entry entry = entries.get(username);
+        if (entry == null || entry.expiresAt <= clock.millis()) {
+            if (entry != null && entries.remove(username, entry)) {
+                evictions.incrementAndGet();
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.toUserDetails();
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        if (ttlMillis <= 0) {
+            return;
+        }
+        if (entries.size() >= maxEntries && !entries.containsKey(user.getUsername())) {
+            removeExpired();
+            if (entries.size() >= maxEntries) {
+                // Full of live entries: authenticate this user from the database instead
+                return;
+            }
+        }
+        entries.put(user.getUsername(), new Entry(user, clock.millis() + ttlMillis));
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        entries.remove(username);
+        afterTransaction(() -> entries.remove(username));
+    }
+
+    /**
+     * 清空缓存（角色或权限定义变化时使用）
+     */
+    public void removeAll() {
+        entries.clear();
+        afterTransaction(entries::clear);
+    }
+
+    public CacheStatsDto getCacheStats() {
+        return new CacheStatsDto("user-details", hits.get(), misses.get(), evictions.get(),
+                entries.size(), -1, -1);
+    }
+
+    private void removeExpired() {
+        long now = clock.millis();
+        entries.forEach((username, entry) -> {
+            if (entry.expiresAt <= now && entries.remove(username, entry)) {
+                evictions.incrementAndGet();
+            }
+        });
+    }
+
+    private static void afterTransaction(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private static final class Entry {
+        final String username;
+        final String password;
+        final Set<GrantedAuthority> authorities;
+        final boolean enabled;
+        final boolean accountNonExpired;
+        final boolean credentialsNonExpired;
+        final boolean accountNonLocked;
+        final long expiresAt;
+
+        Entry(UserDetails user, long expiresAt) {
+            this.username = user.getUsername();
+            this.password = user.getPassword();
+            this.authorities = Set.copyOf(user.getAuthorities());
+            this.enabled = user.isEnabled();
+            this.accountNonExpired = user.isAccountNonExpired();
+            this.credentialsNonExpired = user.isCredentialsNonExpired();
+            this.accountNonLocked = user.isAccountNonLocked();
+            this.expiresAt = expiresAt;
+        }
+
+        UserDetails toUserDetails() {
+            return new User(username, password, enabled, accountNonExpired, credentialsNonExpired,
+                    accountNonLocked, authorities);
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package com.school.homework.service;
 
 import com.school.homework.dto.CommentDto;
+import com.school.homework.dto.CursorPage;
 import com.school.homework.entity.Comment;
-import java.util.List;
 
 public interface CommentService {
     Comment addComment(CommentDto commentDto, Long postId, String username);
-    List<Comment> getCommentsByPostId(Long postId);
+    // Oldest first; afterCursor is the nextCursor of the previous page (null for the first page)
+    CursorPage<CommentDto> getCommentsByPostId(Long postId, String afterCursor, int size);
 }
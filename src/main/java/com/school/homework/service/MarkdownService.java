@@ -1,6 +1,23 @@
 package com.school.homework.service;
 
+import com.school.homework.dto.CacheStatsDto;
+
+import java.time.LocalDateTime;
+
 public interface MarkdownService {
     String renderToHtml(String markdown);
-}
 
+    /**
+     * Version of the rendering pipeline; stored HTML rendered with another version is stale.
+     */
+    int getRendererVersion();
+
+    /**
+     * Renders the content of a post, reusing the cached HTML while the post's version is unchanged.
+     */
+    String renderPostToHtml(Long postId, LocalDateTime version, String markdown);
+
+    void evictPost(Long postId);
+
+    CacheStatsDto getCacheStats();
+}
@@ -1,8 +1,18 @@
 package com.school.homework.service;
 
+import com.school.homework.dto.ImportReport;
+import org.springframework.core.io.Resource;
+
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
 
 public interface PostImportService {
-    void importPostsFromResources() throws IOException;
+    ImportReport importPostsFromResources() throws IOException;
+    // progress is filled in batch by batch and can be read from other threads while the import runs
+    ImportReport importPostsFromResources(ImportReport progress) throws IOException;
+    // origin prefixes each file name in the import manifest; sources is the complete listing of that origin
+    ImportReport importPosts(String origin, List<? extends Resource> sources);
+    // Partial run: only the given files changed, removed holds file names that disappeared
+    ImportReport importChanges(String origin, List<? extends Resource> changed, Collection<String> removed);
 }
-
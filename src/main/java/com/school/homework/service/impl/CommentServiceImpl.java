@@ -4,12 +4,14 @@ import com.school.homework.dao.CommentRepository;
 import com.school.homework.dao.PostRepository;
 import com.school.homework.dao.UserRepository;
 import com.school.homework.dto.CommentDto;
+import com.school.homework.dto.CursorPage;
 import com.school.homework.entity.Comment;
 import com.school.homework.entity.Post;
 import com.school.homework.entity.User;
 import com.school.homework.exception.ResourceNotFoundException;
 import com.school.homework.service.CommentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -46,7 +48,28 @@ public class CommentServiceImpl implements CommentService {
     }
 
     @Override
-    public List<Comment> getCommentsByPostId(Long postId) {
-        return commentRepository.findByPostId(postId);
+    @Transactional(readOnly = true)
+    public CursorPage<CommentDto> getCommentsByPostId(Long postId, String afterCursor, int size) {
+        // Ids come from the comments sequence, so they follow posting order and make a stable keyset
+        long afterId = parseCursor(afterCursor);
+        // Fetch one extra row to know whether another page exists
+        List<CommentDto> comments = commentRepository.findPageByPostId(postId, afterId, PageRequest.of(0, size + 1));
+        String nextCursor = null;
+        if (comments.size() > size) {
+            comments = comments.subList(0, size);
+            nextCursor = String.valueOf(comments.get(size - 1).getId());
+        }
+        return new CursorPage<>(comments, nextCursor, null);
+    }
+
+    private static long parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Math.max(0L, Long.parseLong(cursor));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
     }
 }
@@ -0,0 +1,106 @@
+package com.school.homework.service.impl;
+
+import com.school.homework.dto.CacheStatsDto;
+import com.school.homework.entity.Permission;
+import com.school.homework.entity.Role;
+import com.school.homework.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 二级缓存的显式失效与统计
+ *
+ * <p>Hibernate 会随实体的增删改自动维护二级缓存；这里在用户和角色数据的写操作提交后
+ * 再显式失效相关缓存项，使下一次读取直接从数据库加载，而不依赖并发读取回填的内容。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Component
+public class EntityCache {
+
+    private static final String USER_ROLES = User.class.getName() + ".roles";
+    private static final String ROLE_PERMISSIONS = Role.class.getName() + ".permissions";
+
+    private final SessionFactory sessionFactory;
+
+    public EntityCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /**
+     * 失效某个用户及其角色集合（当前事务结束后执行）
+     */
+    public void evictUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        whenTransactionEnds(cache -> {
+            cache.evictEntityData(User.class, userId);
+            cache.evictCollectionData(USER_ROLES, userId);
+        });
+    }
+
+    /**
+     * 失效全部角色、权限及用户的角色集合（当前事务结束后执行）
+     */
+    public void evictRolesAndPermissions() {
+        whenTransactionEnds(cache -> {
+            cache.evictEntityData(Role.class);
+            cache.evictEntityData(Permission.class);
+            cache.evictCollectionData(ROLE_PERMISSIONS);
+            cache.evictCollectionData(USER_ROLES);
+            cache.evictDefaultQueryRegion();
+        });
+    }
+
+    /**
+     * 各缓存区域的命中统计；缓存不提供的数值记为 -1
+     */
+    public List<CacheStatsDto> getStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        String[] regions = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regions);
+
+        List<CacheStatsDto> stats = new ArrayList<>(regions.length);
+        for (String region : regions) {
+            CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+            if (regionStats != null) {
+                stats.add(new CacheStatsDto("hibernate:" + region, regionStats.getHitCount(),
+                        regionStats.getMissCount(), -1, known(regionStats.getElementCountInMemory()),
+                        known(regionStats.getSizeInMemory()), -1));
+            }
+        }
+        return stats;
+    }
+
+    private static long known(long value) {
+        return value < 0 ? -1 : value;
+    }
+
+    private void whenTransactionEnds(Consumer<Cache> eviction) {
+        Cache cache = sessionFactory.getCache();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.accept(cache);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // Also after a rollback: whatever was cached during the transaction may be stale
+                eviction.accept(cache);
+            }
+        });
+    }
+}
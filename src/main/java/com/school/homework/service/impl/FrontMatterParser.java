@@ -0,0 +1,246 @@
+package com.school.homework.service.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Markdown Front Matter 解析器
+ *
+ * <p>直接在文件的字节缓冲区上逐行扫描：只有 Front Matter 中的各行会被解码成字符串，
+ * 正文在确定起止位置（已去掉首尾空白）后一次性解码，不经过逐行拼接、整篇正则匹配和 split 产生的多次复制。
+ * 本地文件通过 FileChannel 读取，较大的文件直接做内存映射。</p>
+ *
+ * <p>支持的 Front Matter 写法：
+ * <pre>
+ * ---
+ * title: "文章标题"
+ * author: admin
+ * tags: [java, spring]      # 或 tags: java, spring
+ * ---
+ * </pre>
+ * 以及 YAML 块列表：
+ * <pre>
+ * tags:
+ *   - java
+ *   - spring
+ * </pre>
+ * 只处理上述键值与列表，不是完整的 YAML 实现。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+public final class FrontMatterParser {
+
+    /** 不小于该大小的本地文件使用内存映射读取 */
+    private static final long MAP_THRESHOLD = 256 * 1024;
+
+    private static final String DELIMITER = "---";
+
+    private FrontMatterParser() {
+    }
+
+    /**
+     * 解析结果；没有 Front Matter 时 title、author 为空，正文是整个文件
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Document {
+        private final String title;
+        private final String author;
+        private final List<String> tags;
+        private final String body;
+    }
+
+    /**
+     * 读取资源的全部内容；本地文件走 FileChannel（大文件内存映射），其他资源读入堆内存
+     */
+    public static ByteBuffer read(Resource resource) throws IOException {
+        if (resource.isFile()) {
+            try (FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size >= MAP_THRESHOLD) {
+                    return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                }
+                ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // Keep reading until the file is fully buffered
+                }
+                return buffer.flip();
+            }
+        }
+        try (InputStream in = resource.getInputStream()) {
+            return ByteBuffer.wrap(in.readAllBytes());
+        }
+    }
+
+    /**
+     * 解析 UTF-8 编码的 Markdown 内容，不改变参数缓冲区的位置
+     */
+    public static Document parse(ByteBuffer content) {
+        ByteBuffer in = content.duplicate();
+        int start = skipBom(in, in.position(), in.limit());
+        int end = in.limit();
+
+        int lineEnd = lineEnd(in, start, end);
+        if (!isDelimiter(in, start, lineEnd)) {
+            return new Document(null, null, List.of(), decode(in, start, end));
+        }
+
+        Map<String, String> scalars = new HashMap<>();
+        Map<String, List<String>> lists = new HashMap<>();
+        String listKey = null;
+        int pos = nextLine(lineEnd, end);
+        boolean closed = false;
+        while (pos < end) {
+            lineEnd = lineEnd(in, pos, end);
+            if (isDelimiter(in, pos, lineEnd)) {
+                closed = true;
+                pos = nextLine(lineEnd, end);
+                break;
+            }
+            listKey = parseLine(decode(in, pos, lineEnd), scalars, lists, listKey);
+            pos = nextLine(lineEnd, end);
+        }
+        if (!closed) {
+            // An opening delimiter without a closing one is just content
+            return new Document(null, null, List.of(), decode(in, start, end));
+        }
+
+        List<String> tags = lists.get("tags");
+        if (tags == null) {
+            String tagString = scalars.get("tags");
+            tags = tagString == null ? List.of() : splitList(tagString);
+        }
+        return new Document(scalars.get("title"), scalars.get("author"), tags, trimmedBody(in, pos, end));
+    }
+
+    /**
+     * @return 之后的 "- item" 行所属的列表键，没有则为 null
+     */
+    private static String parseLine(String line, Map<String, String> scalars, Map<String, List<String>> lists,
+                                    String listKey) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return listKey;
+        }
+        if (listKey != null && trimmed.startsWith("-")) {
+            lists.get(listKey).add(unquote(trimmed.substring(1).trim()));
+            return listKey;
+        }
+        int colon = trimmed.indexOf(':');
+        if (colon <= 0) {
+            return null;
+        }
+        String key = trimmed.substring(0, colon).trim();
+        String value = stripComment(trimmed.substring(colon + 1).trim());
+        if (value.isEmpty()) {
+            lists.put(key, new ArrayList<>());
+            return key;
+        }
+        if (value.startsWith("[") && value.endsWith("]")) {
+            lists.put(key, splitList(value.substring(1, value.length() - 1)));
+        } else {
+            scalars.put(key, unquote(value));
+        }
+        return null;
+    }
+
+    private static List<String> splitList(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .map(FrontMatterParser::unquote)
+                .filter(item -> !item.isEmpty())
+                .toList();
+    }
+
+    private static String stripComment(String value) {
+        if (value.startsWith("\"") || value.startsWith("'")) {
+            return value;
+        }
+        int hash = value.indexOf(" #");
+        return hash < 0 ? value : value.substring(0, hash).trim();
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2) {
+            char first = value.charAt(0);
+            char last = value.charAt(value.length() - 1);
+            if ((first == '"' || first == '\'') && first == last) {
+                return value.substring(1, value.length() - 1);
+            }
+        }
+        return value;
+    }
+
+    private static int skipBom(ByteBuffer in, int pos, int end) {
+        if (end - pos >= 3 && in.get(pos) == (byte) 0xEF && in.get(pos + 1) == (byte) 0xBB
+                && in.get(pos + 2) == (byte) 0xBF) {
+            return pos + 3;
+        }
+        return pos;
+    }
+
+    /** 行尾位置（'\n' 的位置，没有则为 end） */
+    private static int lineEnd(ByteBuffer in, int pos, int end) {
+        for (int i = pos; i < end; i++) {
+            if (in.get(i) == '\n') {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static int nextLine(int lineEnd, int end) {
+        return Math.min(lineEnd + 1, end);
+    }
+
+    private static boolean isDelimiter(ByteBuffer in, int pos, int lineEnd) {
+        int last = lineEnd;
+        while (last > pos && (in.get(last - 1) == '\r' || in.get(last - 1) == ' ' || in.get(last - 1) == '\t')) {
+            last--;
+        }
+        if (last - pos != DELIMITER.length()) {
+            return false;
+        }
+        for (int i = 0; i < DELIMITER.length(); i++) {
+            if (in.get(pos + i) != DELIMITER.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String trimmedBody(ByteBuffer in, int pos, int end) {
+        // Bytes <= ' ' are ASCII whitespace/control; UTF-8 continuation bytes are all >= 0x80
+        while (pos < end && (in.get(pos) & 0xFF) <= ' ') {
+            pos++;
+        }
+        while (end > pos && (in.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        return decode(in, pos, end);
+    }
+
+    private static String decode(ByteBuffer in, int from, int to) {
+        String text;
+        if (in.hasArray()) {
+            text = new String(in.array(), in.arrayOffset() + from, to - from, StandardCharsets.UTF_8);
+        } else {
+            text = StandardCharsets.UTF_8.decode(in.slice(from, to - from)).toString();
+        }
+        return text.indexOf('\r') < 0 ? text : text.replace("\r\n", "\n");
+    }
+}
@@ -1,23 +1,49 @@
 package com.school.homework.service.impl;
 
+import com.school.homework.dto.CacheStatsDto;
 import com.school.homework.service.MarkdownService;
 import org.commonmark.Extension;
 import org.commonmark.ext.autolink.AutolinkExtension;
 import org.commonmark.ext.gfm.tables.TablesExtension;
 import org.commonmark.parser.Parser;
 import org.commonmark.renderer.html.HtmlRenderer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class MarkdownServiceImpl implements MarkdownService {
 
+    /**
+     * Bump whenever the parser/renderer configuration below changes (extensions, options),
+     * so that HTML persisted on posts is re-rendered by the background job.
+     */
+    public static final int RENDERER_VERSION = 1;
+
+    /** Rough per-entry overhead (map node, key, entry object) added to the HTML weight. */
+    private static final long ENTRY_OVERHEAD_BYTES = 64;
+
     private final Parser parser;
     private final HtmlRenderer renderer;
 
-    public MarkdownServiceImpl() {
+    // Access-ordered map gives LRU iteration order for eviction; guarded by itself
+    private final Map<Long, CachedHtml> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final long maxCacheBytes;
+    private long cachedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public MarkdownServiceImpl(@Value("${app.markdown.cache.max-bytes:16777216}") long maxCacheBytes) {
         List<Extension> extensions = Arrays.asList(TablesExtension.create(), AutolinkExtension.create());
         this.parser = Parser.builder()
                 .extensions(extensions)
@@ -25,6 +51,7 @@ public class MarkdownServiceImpl implements MarkdownService {
         this.renderer = HtmlRenderer.builder()
                 .extensions(extensions)
                 .build();
+        this.maxCacheBytes = maxCacheBytes;
     }
 
     @Override
@@ -34,5 +61,86 @@ public class MarkdownServiceImpl implements MarkdownService {
         }
         return renderer.render(parser.parse(markdown));
     }
-}
 
+    @Override
+    public int getRendererVersion() {
+        return RENDERER_VERSION;
+    }
+
+    @Override
+    public String renderPostToHtml(Long postId, LocalDateTime version, String markdown) {
+        // Without an id and a version we cannot tell whether a cached copy is still current
+        if (postId == null || version == null) {
+            return renderToHtml(markdown);
+        }
+
+        synchronized (cache) {
+            CachedHtml cached = cache.get(postId);
+            if (cached != null && Objects.equals(cached.version, version)) {
+                hits.incrementAndGet();
+                return cached.html;
+            }
+        }
+        misses.incrementAndGet();
+
+        // Render outside the lock so a large post does not block readers of other posts
+        String html = renderToHtml(markdown);
+        CachedHtml entry = new CachedHtml(version, html);
+
+        synchronized (cache) {
+            CachedHtml previous = cache.remove(postId);
+            if (previous != null) {
+                cachedBytes -= previous.weight;
+            }
+            if (entry.weight <= maxCacheBytes) {
+                cache.put(postId, entry);
+                cachedBytes += entry.weight;
+                evictOverflow();
+            }
+        }
+        return html;
+    }
+
+    @Override
+    public void evictPost(Long postId) {
+        if (postId == null) {
+            return;
+        }
+        synchronized (cache) {
+            CachedHtml removed = cache.remove(postId);
+            if (removed != null) {
+                cachedBytes -= removed.weight;
+            }
+        }
+    }
+
+    @Override
+    public CacheStatsDto getCacheStats() {
+        synchronized (cache) {
+            return new CacheStatsDto("markdown-html", hits.get(), misses.get(), evictions.get(),
+                    cache.size(), cachedBytes, maxCacheBytes);
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<CachedHtml> it = cache.values().iterator();
+        while (cachedBytes > maxCacheBytes && it.hasNext()) {
+            cachedBytes -= it.next().weight;
+            it.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static final class CachedHtml {
+        final LocalDateTime version;
+        final String html;
+        final long weight;
+
+        CachedHtml(LocalDateTime version, String html) {
+            this.version = version;
+            this.html = html;
+            // Java strings are UTF-16 in the worst case: two bytes per char
+            this.weight = 2L * html.length() + ENTRY_OVERHEAD_BYTES;
+        }
+    }
+}
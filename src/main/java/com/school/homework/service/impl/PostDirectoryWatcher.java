@@ -0,0 +1,249 @@
+package com.school.homework.service.impl;
+
+import com.school.homework.service.PostImportService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文章目录监听导入
+ *
+ * <p>开启 app.import.watch.enabled 后监听 app.import.watch.directory 目录下的 *.md 文件，
+ * 新增、修改和删除的文件不需要重启即可导入（内容哈希清单见 {@link PostImportServiceImpl}）。
+ * 启动完成后先对目录做一次完整导入，补上停机期间的变化。</p>
+ *
+ * <p>变化合并（debounce）：
+ * <ul>
+ *   <li>每个文件事件都会把导入推迟到 debounce-ms 之后，编辑器保存或 git checkout
+ *       产生的一连串事件只触发一次导入</li>
+ *   <li>事件持续不断时，最早的事件之后最多等待 max-wait-ms 就开始导入</li>
+ *   <li>以 "." 开头的文件（编辑器锁文件、临时文件）和非 .md 文件被忽略</li>
+ *   <li>事件丢失（OVERFLOW）时改为重新完整导入整个目录</li>
+ * </ul>
+ * </p>
+ *
+ * <p>导入在专用的单线程中执行，同一时刻只有一次导入，不占用请求线程；
+ * 导入期间到达的变化在下一次导入中处理。待处理集合只在调度线程中访问，不需要加锁。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Component
+public class PostDirectoryWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostDirectoryWatcher.class);
+
+    private final PostImportService postImportService;
+    private final boolean enabled;
+    private final Path directory;
+    /** 导入清单中的路径为 origin + 文件名 */
+    private final String origin;
+    private final long debounceMillis;
+    private final long maxWaitMillis;
+
+    /** 合并事件的调度线程，下面的状态字段只在该线程中读写 */
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> daemon(runnable, "post-watch-debounce"));
+    private final ExecutorService importer = Executors.newSingleThreadExecutor(
+            runnable -> daemon(runnable, "post-watch-import"));
+
+    private final Set<Path> pending = new HashSet<>();
+    private boolean rescanPending;
+    private long firstEventNanos;
+    private ScheduledFuture<?> scheduledFlush;
+    private boolean importing;
+
+    private volatile WatchService watchService;
+
+    public PostDirectoryWatcher(PostImportService postImportService,
+                                @Value("${app.import.watch.enabled:false}") boolean enabled,
+                                @Value("${app.import.watch.directory:posts}") String directory,
+                                @Value("${app.import.watch.debounce-ms:500}") long debounceMillis,
+                                @Value("${app.import.watch.max-wait-ms:5000}") long maxWaitMillis) {
+        this.postImportService = postImportService;
+        this.enabled = enabled;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        String uri = this.directory.toUri().toString();
+        this.origin = uri.endsWith("/") ? uri : uri + "/";
+        this.debounceMillis = debounceMillis;
+        this.maxWaitMillis = Math.max(debounceMillis, maxWaitMillis);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            WatchService service = directory.getFileSystem().newWatchService();
+            directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            watchService = service;
+        } catch (IOException e) {
+            logger.error("Cannot watch {} for Markdown posts", directory, e);
+            return;
+        }
+        daemon(this::watch, "post-watch").start();
+        scheduler.execute(() -> {
+            rescanPending = true;
+            flush();
+        });
+        logger.info("Watching {} for Markdown posts (debounce {} ms).", directory, debounceMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        WatchService service = watchService;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                logger.debug("Closing the watch service failed", e);
+            }
+        }
+        scheduler.shutdownNow();
+        importer.shutdownNow();
+    }
+
+    private void watch() {
+        WatchService service = watchService;
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                List<Path> changed = new ArrayList<>();
+                boolean overflow = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        overflow = true;
+                    } else if (isMarkdown((Path) event.context())) {
+                        changed.add(directory.resolve((Path) event.context()));
+                    }
+                }
+                key.reset();
+                if (overflow || !changed.isEmpty()) {
+                    boolean rescan = overflow;
+                    scheduler.execute(() -> onChanges(changed, rescan));
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Shutting down
+        }
+    }
+
+    private void onChanges(List<Path> changed, boolean rescan) {
+        pending.addAll(changed);
+        rescanPending |= rescan;
+        long now = System.nanoTime();
+        if (firstEventNanos == 0) {
+            firstEventNanos = now;
+        }
+        // Quiet period after the latest event, but never later than max-wait after the first one
+        long untilMaxWait = maxWaitMillis - TimeUnit.NANOSECONDS.toMillis(now - firstEventNanos);
+        schedule(Math.max(0, Math.min(debounceMillis, untilMaxWait)));
+    }
+
+    private void schedule(long delayMillis) {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+        }
+        scheduledFlush = scheduler.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        if (importing || (pending.isEmpty() && !rescanPending)) {
+            // Whatever arrives during an import is scheduled again when it finishes
+            return;
+        }
+        Set<Path> batch = new HashSet<>(pending);
+        boolean rescan = rescanPending;
+        pending.clear();
+        rescanPending = false;
+        firstEventNanos = 0;
+        importing = true;
+        importer.execute(() -> {
+            try {
+                runImport(batch, rescan);
+            } finally {
+                if (!scheduler.isShutdown()) {
+                    scheduler.execute(() -> {
+                        importing = false;
+                        if (!pending.isEmpty() || rescanPending) {
+                            schedule(debounceMillis);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    private void runImport(Set<Path> batch, boolean rescan) {
+        try {
+            if (rescan) {
+                postImportService.importPosts(origin, listMarkdown());
+                return;
+            }
+            List<Resource> changed = new ArrayList<>();
+            List<String> removed = new ArrayList<>();
+            for (Path path : batch) {
+                if (Files.isRegularFile(path)) {
+                    changed.add(new FileSystemResource(path));
+                } else {
+                    removed.add(path.getFileName().toString());
+                }
+            }
+            postImportService.importChanges(origin, changed, removed);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Importing changes from {} failed", directory, e);
+        }
+    }
+
+    private List<Resource> listMarkdown() throws IOException {
+        List<Resource> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                if (isMarkdown(path.getFileName()) && Files.isRegularFile(path)) {
+                    files.add(new FileSystemResource(path));
+                }
+            }
+        }
+        return files;
+    }
+
+    private static boolean isMarkdown(Path fileName) {
+        String name = fileName.toString();
+        return name.endsWith(".md") && !name.startsWith(".");
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,41 @@
+package com.school.homework.service.impl;
+
+import com.school.homework.dto.ImportProgressDto;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 健康检查中的 postImport 组件
+ *
+ * <p>只展示启动导入的状态和进度，始终为 UP：导入未完成或失败时已有文章照常可读，
+ * 不应让实例被摘除或重启。该组件不属于 readiness 分组。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Component
+public class PostImportHealthIndicator implements HealthIndicator {
+
+    private final StartupPostImport startupPostImport;
+
+    public PostImportHealthIndicator(StartupPostImport startupPostImport) {
+        this.startupPostImport = startupPostImport;
+    }
+
+    @Override
+    public Health health() {
+        ImportProgressDto progress = startupPostImport.getProgress();
+        Health.Builder health = Health.up()
+                .withDetail("state", progress.getState())
+                .withDetail("sources", progress.getSources())
+                .withDetail("processed", progress.getProcessed())
+                .withDetail("imported", progress.getImported())
+                .withDetail("skipped", progress.getSkipped())
+                .withDetail("failed", progress.getFailed());
+        if (progress.getError() != null) {
+            health.withDetail("error", progress.getError());
+        }
+        return health.build();
+    }
+}
@@ -1,134 +1,386 @@
 package com.school.homework.service.impl;
 
+import com.school.homework.dao.ImportManifestRepository;
+import com.school.homework.dao.PostRepository;
+import com.school.homework.dto.ImportReport;
 import com.school.homework.dto.PostDto;
-import com.school.homework.entity.Post;
+import com.school.homework.entity.ImportManifestEntry;
+import com.school.homework.enums.PostStatus;
 import com.school.homework.service.PostImportService;
 import com.school.homework.service.PostService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Markdown 文章批量导入
+ *
+ * <p>导入流程：
+ * <ul>
+ *   <li>已有文章标题只查询一次（仅标题列）放入集合，去重是 O(1) 的集合查找；
+ *       同一批文件中的重复标题也只导入第一篇</li>
+ *   <li>文件按批（app.import.batch-size）在解析线程池中并行读取和解析（{@link FrontMatterParser}），
+ *       写入当前批时下一批已经在解析</li>
+ *   <li>每批文章在一个事务中写入；批内某篇失败时整批回滚，再逐篇重试，
+ *       只有真正出错的文件计入失败</li>
+ * </ul>
+ * 结束时返回 {@link ImportReport}（导入/跳过/失败数量、失败原因和吞吐量）并写入日志。</p>
+ *
+ * <p>增量导入：导入清单（{@link ImportManifestEntry}）记录每个源文件的 SHA-256 和对应文章。
+ * 内容哈希未变的文件只读取、不解析；内容变化的文件更新原文章；
+ * 源文件消失时删除清单条目，开启 app.import.archive-removed 时同时把文章设为 ARCHIVED。
+ * 因此重复导入的开销只与变化的文件数量有关。</p>
+ *
+ * <p>各次导入（启动导入、目录监听导入）依次执行，不会并发写入。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
 @Service
 public class PostImportServiceImpl implements PostImportService {
 
     private static final Logger logger = LoggerFactory.getLogger(PostImportServiceImpl.class);
+
+    /** 随应用打包的文章来源 */
+    private static final String RESOURCE_ORIGIN = "classpath:posts/";
+
+    private enum Outcome { IMPORTED, UPDATED, SKIPPED }
+
     private final PostService postService;
+    private final PostRepository postRepository;
+    private final ImportManifestRepository manifestRepository;
+    private final TransactionTemplate batchTransaction;
+    private final int batchSize;
+    private final int parallelism;
+    private final boolean archiveRemoved;
+    /** 同一时刻只执行一次导入 */
+    private final ReentrantLock importLock = new ReentrantLock();
 
-    public PostImportServiceImpl(PostService postService) {
+    public PostImportServiceImpl(PostService postService,
+                                 PostRepository postRepository,
+                                 ImportManifestRepository manifestRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.import.batch-size:200}") int batchSize,
+                                 @Value("${app.import.parallelism:0}") int parallelism,
+                                 @Value("${app.import.archive-removed:false}") boolean archiveRemoved) {
         this.postService = postService;
+        this.postRepository = postRepository;
+        this.manifestRepository = manifestRepository;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = Math.max(1, batchSize);
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.archiveRemoved = archiveRemoved;
+    }
+
+    @Override
+    public ImportReport importPostsFromResources() throws IOException {
+        return importPostsFromResources(new ImportReport());
     }
 
     @Override
-    @Transactional
-    public void importPostsFromResources() throws IOException {
+    public ImportReport importPostsFromResources(ImportReport progress) throws IOException {
         PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
-        Resource[] resources = resolver.getResources("classpath:posts/*.md");
+        Resource[] resources = resolver.getResources(RESOURCE_ORIGIN + "*.md");
 
         logger.info("Found {} markdown files to import.", resources.length);
+        return importPosts(RESOURCE_ORIGIN, Arrays.asList(resources), progress);
+    }
+
+    @Override
+    public ImportReport importPosts(String origin, List<? extends Resource> sources) {
+        return importPosts(origin, sources, new ImportReport());
+    }
 
-        for (Resource resource : resources) {
-            try {
-                importSinglePost(resource);
-            } catch (Exception e) {
-                logger.error("Failed to import post from file: {}", resource.getFilename(), e);
+    private ImportReport importPosts(String origin, List<? extends Resource> sources, ImportReport report) {
+        Map<String, ImportManifestEntry> manifest = byPath(manifestRepository.findBySourcePathStartingWith(origin));
+        return run(origin, sources, manifest, report, seen -> {
+            List<ImportManifestEntry> missing = manifest.values().stream()
+                    .filter(entry -> !seen.contains(entry.getSourcePath()))
+                    .toList();
+            if (!missing.isEmpty() && seen.isEmpty()) {
+                // An empty listing is more likely a wrong path than every file being deleted
+                logger.warn("No sources found under {}; keeping {} manifest entries.", origin, missing.size());
+                return List.of();
             }
-        }
+            return missing;
+        });
     }
 
-    private void importSinglePost(Resource resource) throws IOException {
-        String content = readResource(resource);
-        ParsedPost parsed = parseFrontMatter(content);
+    @Override
+    public ImportReport importChanges(String origin, List<? extends Resource> changed, Collection<String> removed) {
+        Set<String> removedPaths = removed.stream().map(name -> origin + name).collect(Collectors.toSet());
+        List<String> paths = new ArrayList<>(removedPaths);
+        changed.forEach(resource -> paths.add(sourcePath(origin, resource)));
+        Map<String, ImportManifestEntry> manifest = byPath(manifestRepository.findBySourcePathIn(paths));
+        return run(origin, changed, manifest, new ImportReport(), seen -> manifest.values().stream()
+                .filter(entry -> removedPaths.contains(entry.getSourcePath()))
+                .toList());
+    }
 
-        if (parsed.title == null || parsed.author == null) {
-            logger.warn("Skipping {} due to missing Front Matter (title or author)", resource.getFilename());
-            return;
+    /**
+     * @param manifest 本次涉及的清单条目（路径 → 条目）
+     * @param report   导入过程中逐批累加的报告
+     * @param removed  根据本次出现的源文件路径，给出需要移除的清单条目
+     */
+    private ImportReport run(String origin, List<? extends Resource> sources, Map<String, ImportManifestEntry> manifest,
+                             ImportReport report, Function<Set<String>, List<ImportManifestEntry>> removed) {
+        // Startup and watch-directory imports may overlap; the title check below assumes one writer
+        importLock.lock();
+        try {
+            return runLocked(origin, sources, manifest, report, removed);
+        } finally {
+            importLock.unlock();
         }
+    }
 
-        // Check deduplication (Simple logic: Check if a post with same title exists)
+    private ImportReport runLocked(String origin, List<? extends Resource> sources,
+                                   Map<String, ImportManifestEntry> manifest, ImportReport report,
+                                   Function<Set<String>, List<ImportManifestEntry>> removed) {
+        long start = System.nanoTime();
+        report.setSources(sources.size());
+        Set<String> knownTitles = new HashSet<>(postRepository.findAllTitles());
+        Set<String> seen = new HashSet<>();
+
+        ExecutorService parsers = newParserPool();
         try {
-            // Note: Ideally PostService should expose a method to check existence or find by title
-            // But for now, we rely on search or we just try to create.
-            // Better: Let's assume we want to skip if title exists to avoid duplicates on every restart.
-            boolean exists = postService.getAllPosts(org.springframework.data.domain.Pageable.unpaged())
-                    .stream()
-                    .anyMatch(p -> p.getTitle().equals(parsed.title));
-
-            if (exists) {
-                logger.info("Post '{}' already exists. Skipping.", parsed.title);
-                return;
+            List<List<? extends Resource>> batches = partition(sources);
+            CompletableFuture<List<ParsedPost>> next =
+                    batches.isEmpty() ? null : parseAsync(origin, batches.get(0), manifest, parsers);
+            for (int i = 0; i < batches.size(); i++) {
+                List<ParsedPost> batch = next.join();
+                if (i + 1 < batches.size()) {
+                    next = parseAsync(origin, batches.get(i + 1), manifest, parsers);
+                }
+                batch.forEach(parsed -> seen.add(parsed.source));
+                writeBatch(batch, manifest, knownTitles, report);
             }
+        } finally {
+            parsers.shutdownNow();
+        }
+        remove(origin, removed.apply(seen), report);
 
-            PostDto dto = new PostDto();
-            dto.setTitle(parsed.title);
-            dto.setContent(parsed.body);
-            dto.setTagString(parsed.tags);
-            dto.setStatus(com.school.homework.enums.PostStatus.PUBLISHED);
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        logger.info("Import finished: {} files, {} imported, {} updated, {} unchanged, {} skipped, {} archived, "
+                        + "{} failed in {} ms ({} files/s).",
+                report.getSources(), report.getImported(), report.getUpdated(), report.getUnchanged(),
+                report.getSkipped(), report.getArchived(), report.getFailed(),
+                report.getElapsedMillis(), Math.round(report.getFilesPerSecond()));
+        report.getFailures().forEach(failure ->
+                logger.warn("Import failed for {}: {}", failure.getSource(), failure.getMessage()));
+        return report;
+    }
 
-            postService.createPost(dto, parsed.author);
-            logger.info("Successfully imported post: {}", parsed.title);
+    private void writeBatch(List<ParsedPost> batch, Map<String, ImportManifestEntry> manifest,
+                            Set<String> knownTitles, ImportReport report) {
+        List<ParsedPost> toWrite = new ArrayList<>(batch.size());
+        for (ParsedPost parsed : batch) {
+            if (parsed.unchanged) {
+                report.addUnchanged();
+                continue;
+            }
+            if (parsed.error != null) {
+                report.addFailure(parsed.source, parsed.error);
+                continue;
+            }
+            if (parsed.title == null || parsed.author == null) {
+                report.addFailure(parsed.source, "Missing front matter (title or author)");
+                continue;
+            }
+            ImportManifestEntry previous = manifest.get(parsed.source);
+            if (previous != null && previous.getPostId() != null) {
+                // Edited source: update the post it created before
+                parsed.postId = previous.getPostId();
+                knownTitles.add(parsed.title);
+            } else if (!knownTitles.add(parsed.title)) {
+                // Skip if title exists to avoid duplicates; the manifest still records the file
+                parsed.duplicate = true;
+            }
+            toWrite.add(parsed);
+        }
+        if (toWrite.isEmpty()) {
+            return;
+        }
 
-        } catch (Exception e) {
-            logger.error("Error creating post '{}'", parsed.title, e);
+        try {
+            List<Outcome> outcomes = batchTransaction.execute(status -> write(toWrite));
+            outcomes.forEach(outcome -> count(outcome, report));
+        } catch (RuntimeException batchFailure) {
+            // One bad post rolls the whole batch back; redo it post by post to isolate the failures
+            for (ParsedPost parsed : toWrite) {
+                try {
+                    count(batchTransaction.execute(status -> write(List.of(parsed))).get(0), report);
+                } catch (RuntimeException e) {
+                    if (parsed.postId == null && !parsed.duplicate) {
+                        knownTitles.remove(parsed.title);
+                    }
+                    report.addFailure(parsed.source, e.getMessage());
+                }
+            }
         }
     }
 
-    private String readResource(Resource resource) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
-            StringBuilder sb = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                sb.append(line).append("\n");
+    /**
+     * 在当前事务中写入一批文章及其清单条目
+     */
+    private List<Outcome> write(List<ParsedPost> posts) {
+        Map<String, ImportManifestEntry> entries = manifestRepository
+                .findBySourcePathIn(posts.stream().map(parsed -> parsed.source).toList()).stream()
+                .collect(Collectors.toMap(ImportManifestEntry::getSourcePath, Function.identity()));
+        List<Outcome> outcomes = new ArrayList<>(posts.size());
+        for (ParsedPost parsed : posts) {
+            ImportManifestEntry entry = entries.computeIfAbsent(parsed.source, ImportManifestEntry::new);
+            if (parsed.duplicate) {
+                outcomes.add(Outcome.SKIPPED);
+            } else if (parsed.postId != null && postRepository.existsById(parsed.postId)) {
+                postService.updatePost(parsed.postId, toDto(parsed), parsed.author);
+                outcomes.add(Outcome.UPDATED);
+            } else {
+                // New source, or its post was deleted since the last import
+                entry.setPostId(postService.createPost(toDto(parsed), parsed.author).getId());
+                outcomes.add(Outcome.IMPORTED);
             }
-            return sb.toString();
+            entry.setContentHash(parsed.hash);
+            manifestRepository.save(entry);
         }
+        return outcomes;
     }
 
-    private static class ParsedPost {
-        String title;
-        String author;
-        String tags;
-        String body;
+    private void count(Outcome outcome, ImportReport report) {
+        switch (outcome) {
+            case IMPORTED -> report.addImported(1);
+            case UPDATED -> report.addUpdated();
+            case SKIPPED -> report.addSkipped();
+        }
     }
 
-    private ParsedPost parseFrontMatter(String fullContent) {
-        ParsedPost result = new ParsedPost();
+    private void remove(String origin, List<ImportManifestEntry> removed, ImportReport report) {
+        if (removed.isEmpty()) {
+            return;
+        }
+        batchTransaction.executeWithoutResult(status -> {
+            List<Long> postIds = removed.stream().map(ImportManifestEntry::getPostId).filter(Objects::nonNull).toList();
+            if (archiveRemoved && !postIds.isEmpty()) {
+                report.setArchived(postRepository.updateStatus(postIds, PostStatus.ARCHIVED));
+            }
+            manifestRepository.deleteAllInBatch(removed);
+        });
+        logger.info("{} sources under {} were removed; archived {} posts.", removed.size(), origin, report.getArchived());
+    }
 
-        // Regex to match YAML Front Matter between --- and ---
-        Pattern pattern = Pattern.compile("^---\\n(.*?)\\n---\\n(.*)", Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(fullContent);
+    private PostDto toDto(ParsedPost parsed) {
+        PostDto dto = new PostDto();
+        dto.setTitle(parsed.title);
+        dto.setContent(parsed.body);
+        dto.setTagString(parsed.tags);
+        dto.setStatus(PostStatus.PUBLISHED);
+        return dto;
+    }
 
-        if (matcher.find()) {
-            String frontMatter = matcher.group(1);
-            result.body = matcher.group(2).trim();
+    private CompletableFuture<List<ParsedPost>> parseAsync(String origin, List<? extends Resource> batch,
+                                                           Map<String, ImportManifestEntry> manifest,
+                                                           ExecutorService parsers) {
+        List<CompletableFuture<ParsedPost>> futures = batch.stream()
+                .map(resource -> CompletableFuture.supplyAsync(() -> parse(origin, resource, manifest), parsers))
+                .toList();
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(done -> futures.stream().map(CompletableFuture::join).toList());
+    }
 
-            Map<String, String> meta = new HashMap<>();
-            for (String line : frontMatter.split("\\n")) {
-                String[] parts = line.split(":", 2);
-                if (parts.length == 2) {
-                    meta.put(parts[0].trim(), parts[1].trim());
-                }
+    private ParsedPost parse(String origin, Resource resource, Map<String, ImportManifestEntry> manifest) {
+        ParsedPost parsed = new ParsedPost();
+        parsed.source = sourcePath(origin, resource);
+        try {
+            ByteBuffer content = FrontMatterParser.read(resource);
+            parsed.hash = sha256(content);
+            ImportManifestEntry previous = manifest.get(parsed.source);
+            if (previous != null && parsed.hash.equals(previous.getContentHash())) {
+                parsed.unchanged = true;
+                return parsed;
             }
+            FrontMatterParser.Document document = FrontMatterParser.parse(content);
+            parsed.title = document.getTitle();
+            parsed.author = document.getAuthor();
+            parsed.tags = String.join(", ", document.getTags());
+            parsed.body = document.getBody();
+        } catch (IOException | RuntimeException e) {
+            parsed.error = "Unreadable: " + e.getMessage();
+        }
+        return parsed;
+    }
 
-            result.title = meta.get("title");
-            result.author = meta.get("author");
-            result.tags = meta.get("tags");
-        } else {
-            // No front matter found, treat whole file as body (or invalid)
-            result.body = fullContent;
+    private List<List<? extends Resource>> partition(List<? extends Resource> sources) {
+        List<List<? extends Resource>> batches = new ArrayList<>();
+        for (int from = 0; from < sources.size(); from += batchSize) {
+            batches.add(sources.subList(from, Math.min(from + batchSize, sources.size())));
+        }
+        return batches;
+    }
+
+    private ExecutorService newParserPool() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "post-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static String sourcePath(String origin, Resource resource) {
+        return origin + (resource.getFilename() != null ? resource.getFilename() : resource.getDescription());
+    }
+
+    private static Map<String, ImportManifestEntry> byPath(List<ImportManifestEntry> entries) {
+        return entries.stream().collect(Collectors.toMap(ImportManifestEntry::getSourcePath, Function.identity()));
+    }
+
+    private static String sha256(ByteBuffer content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content.duplicate());
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        return result;
     }
-}
 
+    private static class ParsedPost {
+        String source;
+        String hash;
+        boolean unchanged;
+        Long postId;
+        boolean duplicate;
+        String error;
+        String title;
+        String author;
+        String tags;
+        String body;
+    }
+}
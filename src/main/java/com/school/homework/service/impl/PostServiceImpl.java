@@ -2,22 +2,42 @@ package com.school.homework.service.impl;
 
 import com.school.homework.constant.AppConstants;
 import com.school.homework.dao.PostRepository;
-import com.school.homework.dao.TagRepository;
 import com.school.homework.dao.UserRepository;
+import com.school.homework.dao.projection.PostContentView;
+import com.school.homework.dao.projection.PostTagNameView;
 import com.school.homework.dao.specification.PostSpecification;
+import com.school.homework.dto.CursorPage;
+import com.school.homework.dto.PostCursor;
 import com.school.homework.dto.PostDto;
 import com.school.homework.dto.PostSearchCriteria;
+import com.school.homework.dto.PostSummaryDto;
 import com.school.homework.entity.Post;
 import com.school.homework.entity.Tag;
 import com.school.homework.entity.User;
+import com.school.homework.event.PostChangedEvent;
 import com.school.homework.exception.ResourceNotFoundException;
+import com.school.homework.search.PostSearchIndex;
+import com.school.homework.search.SearchHit;
+import com.school.homework.search.SnippetHighlighter;
+import com.school.homework.search.SnippetWindow;
+import com.school.homework.search.TagPostIndex;
+import com.school.homework.service.MarkdownService;
 import com.school.homework.service.PostService;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -31,9 +51,14 @@ import java.util.stream.Collectors;
  * <p>主要功能：
  * <ul>
  *   <li>文章创建、更新、删除</li>
- *   <li>文章搜索和分页</li>
- *   <li>标签处理（批量查询优化，避免 N+1 问题）</li>
- *   <li>浏览次数原子递增</li>
+ *   <li>文章搜索和分页（页码分页，或按 (createdAt, id) 游标分页）</li>
+ *   <li>关键词搜索使用进程内全文索引（BM25 排序、高亮摘要），文章变更后发布 PostChangedEvent 增量更新</li>
+ *   <li>多标签过滤（全部/任一匹配）使用标签位图索引，不访问 post_tags 中间表；
+ *       候选文章在内存中按 (createdAt, id) 分页，只把当页ID发给数据库</li>
+ *   <li>标签处理（批量查询优化，避免 N+1 问题；更新时按差异同步；新标签在文章事务打开之前创建）</li>
+ *   <li>写入时渲染 Markdown 并保存 HTML 和摘要，渲染器版本变化后批量重新渲染</li>
+ *   <li>列表页只查询摘要投影，不加载文章正文</li>
+ *   <li>浏览次数在内存中累积，定期批量写入</li>
  *   <li>权限检查（所有权验证）</li>
  * </ul>
  * </p>
@@ -45,27 +70,66 @@ import java.util.stream.Collectors;
 @Transactional
 public class PostServiceImpl implements PostService {
 
+    /** 列表页的排序；索引候选只能按这个顺序在内存中分页 */
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    /** 作者条件中的用户不存在时使用的作者ID，不会匹配任何文章 */
+    private static final Long NO_SUCH_AUTHOR = -1L;
+
     /** 文章数据访问接口 */
     private final PostRepository postRepository;
 
     /** 用户数据访问接口 */
     private final UserRepository userRepository;
 
-    /** 标签数据访问接口 */
-    private final TagRepository tagRepository;
+    /** 标签字典（标签名 → 标签） */
+    private final TagDictionary tagDictionary;
+
+    /** Markdown 渲染服务（用于失效已缓存的 HTML） */
+    private final MarkdownService markdownService;
+
+    /** 浏览次数写缓冲 */
+    private final ViewCountBuffer viewCountBuffer;
+
+    /** 文章全文索引 */
+    private final PostSearchIndex postSearchIndex;
+
+    /** 标签位图索引 */
+    private final TagPostIndex tagPostIndex;
+
+    /** 事件发布器（文章变更后通知索引等监听者） */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** 文章写入事务（新标签创建完成之后才打开） */
+    private final TransactionTemplate writeTransaction;
 
     /**
      * 构造函数注入依赖
      *
      * @param postRepository 文章数据访问接口
      * @param userRepository 用户数据访问接口
-     * @param tagRepository 标签数据访问接口
+     * @param tagDictionary 标签字典
+     * @param markdownService Markdown 渲染服务
+     * @param viewCountBuffer 浏览次数写缓冲
+     * @param postSearchIndex 文章全文索引
+     * @param tagPostIndex 标签位图索引
+     * @param eventPublisher 事件发布器
+     * @param transactionManager 事务管理器
      */
     @Autowired
-    public PostServiceImpl(PostRepository postRepository, UserRepository userRepository, TagRepository tagRepository) {
+    public PostServiceImpl(PostRepository postRepository, UserRepository userRepository, TagDictionary tagDictionary,
+                           MarkdownService markdownService, ViewCountBuffer viewCountBuffer,
+                           PostSearchIndex postSearchIndex, TagPostIndex tagPostIndex,
+                           ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
         this.postRepository = postRepository;
         this.userRepository = userRepository;
-        this.tagRepository = tagRepository;
+        this.tagDictionary = tagDictionary;
+        this.markdownService = markdownService;
+        this.viewCountBuffer = viewCountBuffer;
+        this.postSearchIndex = postSearchIndex;
+        this.tagPostIndex = tagPostIndex;
+        this.eventPublisher = eventPublisher;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -74,8 +138,55 @@ public class PostServiceImpl implements PostService {
     }
 
     @Override
-    public Page<Post> searchPosts(PostSearchCriteria criteria, Pageable pageable) {
-        return postRepository.findAll(PostSpecification.withCriteria(criteria), pageable);
+    public Page<PostSummaryDto> searchPosts(PostSearchCriteria criteria, Pageable pageable) {
+        if (StringUtils.hasText(criteria.getQuery()) && indexesReady(criteria)) {
+            return rankedSearch(criteria, pageable);
+        }
+        // Two phases: page the ids (in memory from the tag index, or in SQL), then fetch just the summary
+        // columns of those posts. Fetching the tags collection together with a limit would make Hibernate
+        // paginate in memory.
+        Page<Long> idPage = pagesInMemory(criteria) && NEWEST_FIRST.equals(pageable.getSort())
+                ? tagPostIndex.findIdPage(resolveCandidates(criteria), resolveAuthorId(criteria), pageable)
+                : postRepository.findIdPage(PostSpecification.withCriteria(criteria), pageable);
+        return new PageImpl<>(findSummariesInOrder(idPage.getContent()), pageable, idPage.getTotalElements());
+    }
+
+    @Override
+    public CursorPage<PostSummaryDto> searchPosts(PostSearchCriteria criteria, String afterCursor, String beforeCursor, int size) {
+        PostCursor before = PostCursor.decode(beforeCursor);
+        PostCursor cursor = before != null ? before : PostCursor.decode(afterCursor);
+        boolean backward = before != null;
+
+        // Fetch one extra key to know whether another page exists in that direction
+        List<PostCursor> keys = new ArrayList<>(pagesInMemory(criteria)
+                ? tagPostIndex.findKeysetPage(resolveCandidates(criteria), resolveAuthorId(criteria),
+                        cursor, backward, size + 1)
+                : postRepository.findKeysetPage(PostSpecification.withCriteria(criteria), cursor, backward, size + 1));
+        boolean more = keys.size() > size;
+        if (more) {
+            keys = keys.subList(0, size);
+        }
+        if (backward) {
+            Collections.reverse(keys);
+        }
+
+        boolean hasOlder = backward || more;
+        boolean hasNewer = backward ? more : cursor != null;
+        String nextCursor = null;
+        String previousCursor = null;
+        if (keys.isEmpty()) {
+            // Nothing left in this direction; let the user step back from where they were
+            if (cursor != null) {
+                previousCursor = backward ? null : cursor.encode();
+                nextCursor = backward ? cursor.encode() : null;
+            }
+        } else {
+            nextCursor = hasOlder ? keys.get(keys.size() - 1).encode() : null;
+            previousCursor = hasNewer ? keys.get(0).encode() : null;
+        }
+
+        return new CursorPage<>(findSummariesInOrder(keys.stream().map(PostCursor::getId).toList()),
+                nextCursor, previousCursor);
     }
 
     // Deprecated methods removed or redirected if needed, but for now searchPosts replaces them.
@@ -102,7 +213,15 @@ public class PostServiceImpl implements PostService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Post createPost(PostDto postDto, String username) {
+        Set<String> tagNames = parseTagNames(postDto.getTagString());
+        // New tags commit in their own short transaction before the post transaction takes a connection
+        tagDictionary.createMissing(tagNames);
+        return writeTransaction.execute(status -> writePost(postDto, username, tagNames));
+    }
+
+    private Post writePost(PostDto postDto, String username, Set<String> tagNames) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found: " + username));
 
@@ -113,14 +232,24 @@ public class PostServiceImpl implements PostService {
             post.setStatus(postDto.getStatus());
         }
         post.setAuthor(user);
+        renderContent(post);
 
-        processTags(post, postDto.getTagString());
+        attachTags(post, tagNames);
 
-        return postRepository.save(post);
+        Post saved = postRepository.save(post);
+        eventPublisher.publishEvent(PostChangedEvent.saved(saved));
+        return saved;
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Post updatePost(Long id, PostDto postDto, String username) {
+        Set<String> tagNames = parseTagNames(postDto.getTagString());
+        tagDictionary.createMissing(tagNames);
+        return writeTransaction.execute(status -> rewritePost(id, postDto, username, tagNames));
+    }
+
+    private Post rewritePost(Long id, PostDto postDto, String username, Set<String> tagNames) {
         Post existingPost = getPostById(id);
 
         // Ownership check
@@ -130,16 +259,18 @@ public class PostServiceImpl implements PostService {
 
         existingPost.setTitle(postDto.getTitle());
         existingPost.setContent(postDto.getContent());
+        renderContent(existingPost);
         if (postDto.getStatus() != null) {
             existingPost.setStatus(postDto.getStatus());
         }
         existingPost.setUpdatedAt(LocalDateTime.now());
 
-        // Clear existing tags and re-add to sync
-        existingPost.getTags().clear();
-        processTags(existingPost, postDto.getTagString());
+        syncTags(existingPost, tagNames);
 
-        return postRepository.save(existingPost);
+        markdownService.evictPost(id);
+        Post saved = postRepository.save(existingPost);
+        eventPublisher.publishEvent(PostChangedEvent.saved(saved));
+        return saved;
     }
 
     @Override
@@ -157,49 +288,203 @@ public class PostServiceImpl implements PostService {
         }
 
         postRepository.deleteById(id);
+        markdownService.evictPost(id);
+        viewCountBuffer.discard(id);
+        eventPublisher.publishEvent(PostChangedEvent.deleted(id));
     }
 
     @Override
     public void incrementViewCount(Long id) {
-        // Atomic update to prevent race conditions
-        postRepository.incrementViewCount(id);
+        // Buffered in memory; ViewCountFlushTask writes the accumulated deltas in one batch
+        viewCountBuffer.increment(id);
     }
 
-    private void processTags(Post post, String tags) {
-        if (tags == null || tags.trim().isEmpty()) {
-            return;
+    @Override
+    public long getViewCount(Post post) {
+        return post.getViewCount() + viewCountBuffer.getPending(post.getId());
+    }
+
+    @Override
+    public int rerenderStaleHtml(int batchSize) {
+        int version = markdownService.getRendererVersion();
+        List<PostContentView> stale = postRepository.findStaleRendered(version, PageRequest.of(0, batchSize));
+        for (PostContentView view : stale) {
+            int updated = postRepository.updateRenderedContent(view.getId(),
+                    markdownService.renderToHtml(view.getContent()), buildExcerpt(view.getContent()), version);
+            if (updated > 0) {
+                markdownService.evictPost(view.getId());
+            }
         }
+        return stale.size();
+    }
 
-        Set<String> tagNames = Arrays.stream(tags.split(","))
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .collect(Collectors.toSet());
+    /**
+     * 关键词和标签条件能否由内存索引解析并在内存中分页（排序键保存在标签索引中）；
+     * 否则整个条件在数据库中执行（LIKE、post_tags 的 EXISTS 子查询）
+     */
+    private boolean pagesInMemory(PostSearchCriteria criteria) {
+        return indexesReady(criteria) && tagPostIndex.isReady();
+    }
 
-        if (tagNames.isEmpty()) {
-            return;
+    /**
+     * 条件中的关键词、标签所需的内存索引是否都已就绪（没有此类条件时返回 false）
+     */
+    private boolean indexesReady(PostSearchCriteria criteria) {
+        boolean hasQuery = StringUtils.hasText(criteria.getQuery());
+        boolean hasTags = !criteria.requestedTags().isEmpty();
+        return (hasQuery || hasTags)
+                && (!hasQuery || postSearchIndex.isReady())
+                && (!hasTags || tagPostIndex.isReady());
+    }
+
+    /**
+     * 在内存中解析关键词和标签条件，得到候选文章ID（无序）
+     */
+    private Roaring64Bitmap resolveCandidates(PostSearchCriteria criteria) {
+        if (!StringUtils.hasText(criteria.getQuery())) {
+            return matchTags(criteria);
         }
+        Roaring64Bitmap candidates = new Roaring64Bitmap();
+        rankCandidates(criteria, null).forEach(candidates::addLong);
+        return candidates;
+    }
+
+    /**
+     * 关键词命中按相关度排序，再按标签条件过滤
+     *
+     * @param authorId 只保留该作者的关键词命中，null 表示不限作者
+     */
+    private List<Long> rankCandidates(PostSearchCriteria criteria, Long authorId) {
+        Roaring64Bitmap tagged = criteria.requestedTags().isEmpty() ? null : matchTags(criteria);
+        return postSearchIndex.search(criteria.getQuery(), authorId).stream()
+                .map(SearchHit::getPostId)
+                .filter(id -> tagged == null || tagged.contains(id))
+                .toList();
+    }
 
-        // Batch fetch existing tags to avoid N+1 select problem
-        List<Tag> existingTags = tagRepository.findByNameIn(tagNames);
-        Map<String, Tag> existingTagMap = existingTags.stream()
-                .collect(Collectors.toMap(Tag::getName, t -> t));
+    private Roaring64Bitmap matchTags(PostSearchCriteria criteria) {
+        return tagPostIndex.match(criteria.requestedTags(), criteria.matchesAnyTag());
+    }
 
-        List<Tag> tagsToAdd = new ArrayList<>();
-        List<Tag> newTagsToSave = new ArrayList<>();
+    /**
+     * 作者条件解析为作者ID（按用户名查询一次，走查询缓存）
+     *
+     * @return 没有作者条件时为 null；用户不存在时为 {@link #NO_SUCH_AUTHOR}
+     */
+    private Long resolveAuthorId(PostSearchCriteria criteria) {
+        if (!StringUtils.hasText(criteria.getAuthorUsername())) {
+            return null;
+        }
+        return userRepository.findByUsername(criteria.getAuthorUsername()).map(User::getId).orElse(NO_SUCH_AUTHOR);
+    }
 
-        for (String tagName : tagNames) {
-            if (existingTagMap.containsKey(tagName)) {
-                tagsToAdd.add(existingTagMap.get(tagName));
-            } else {
-                newTagsToSave.add(new Tag(tagName));
+    /**
+     * 关键词搜索：按 BM25 相关度排序，并为当页结果生成高亮摘要
+     *
+     * <p>标签条件用位图在内存中过滤，作者条件先把用户名解析为作者ID，再由全文索引按作者过滤，
+     * 命中列表不会发给数据库；摘要只读取内容中命中窗口的那一段，每页的开销与文章长度无关。</p>
+     */
+    private Page<PostSummaryDto> rankedSearch(PostSearchCriteria criteria, Pageable pageable) {
+        String query = criteria.getQuery();
+        Long authorId = resolveAuthorId(criteria);
+        if (NO_SUCH_AUTHOR.equals(authorId)) {
+            return Page.empty(pageable);
+        }
+        List<Long> ranked = rankCandidates(criteria, authorId);
+
+        int from = (int) Math.min(pageable.getOffset(), ranked.size());
+        int to = Math.min(from + pageable.getPageSize(), ranked.size());
+        List<PostSummaryDto> summaries = findSummariesInOrder(ranked.subList(from, to));
+
+        // Windows come from the index; their fragments are then read in a single statement for the page
+        Map<Long, SnippetWindow> windows = new HashMap<>();
+        Map<Long, int[]> ranges = new HashMap<>();
+        for (PostSummaryDto summary : summaries) {
+            SnippetWindow window = postSearchIndex.snippet(summary.getId(), query, AppConstants.POST_EXCERPT_LENGTH);
+            if (window != null) {
+                windows.put(summary.getId(), window);
+                ranges.put(summary.getId(), new int[]{window.getStart() + 1, window.length()});
+            }
+        }
+        Map<Long, String> fragments = postRepository.findContentFragments(ranges);
+        for (PostSummaryDto summary : summaries) {
+            String text = fragments.get(summary.getId());
+            if (text != null) {
+                summary.setSnippetHtml(SnippetHighlighter.toHtml(text, windows.get(summary.getId())));
             }
         }
+        return new PageImpl<>(summaries, pageable, ranked.size());
+    }
+
+    /**
+     * 按给定 ID 顺序加载文章摘要（含作者和标签名），不读取文章正文
+     */
+    private List<PostSummaryDto> findSummariesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, PostSummaryDto> byId = postRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PostSummaryDto::getId, s -> s));
+        for (PostTagNameView tag : postRepository.findTagNamesByPostIdIn(ids)) {
+            byId.get(tag.getPostId()).getTagNames().add(tag.getTagName());
+        }
+        byId.values().forEach(s -> s.setViewCount(s.getViewCount() + viewCountBuffer.getPending(s.getId())));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private void renderContent(Post post) {
+        post.setContentHtml(markdownService.renderToHtml(post.getContent()));
+        post.setExcerpt(buildExcerpt(post.getContent()));
+        post.setRenderVersion(markdownService.getRendererVersion());
+    }
 
-        if (!newTagsToSave.isEmpty()) {
-            List<Tag> savedTags = tagRepository.saveAll(newTagsToSave);
-            tagsToAdd.addAll(savedTags);
+    /**
+     * 截取摘要，规则与 Thymeleaf 的 #strings.abbreviate(content, 150) 相同
+     */
+    private static String buildExcerpt(String content) {
+        if (content == null) {
+            return "";
+        }
+        if (content.length() <= AppConstants.POST_EXCERPT_LENGTH) {
+            return content;
+        }
+        return content.substring(0, AppConstants.POST_EXCERPT_LENGTH - 3) + "...";
+    }
+
+    private Set<String> parseTagNames(String tags) {
+        if (tags == null || tags.trim().isEmpty()) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(tags.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * 按差异同步文章标签：只删除去掉的、只添加新增的
+     *
+     * <p>标签未变化时直接返回，不查询标签表，也不改动 post_tags。
+     * 先清空再全部重新添加会让 Hibernate 删除并重新插入该文章的所有关联行。</p>
+     */
+    private void syncTags(Post post, Set<String> wanted) {
+        Set<String> current = post.getTags().stream().map(Tag::getName).collect(Collectors.toSet());
+        if (wanted.equals(current)) {
+            return;
+        }
+
+        post.getTags().removeIf(tag -> !wanted.contains(tag.getName()));
+        Set<String> added = new HashSet<>(wanted);
+        added.removeAll(current);
+        attachTags(post, added);
+    }
+
+    private void attachTags(Post post, Set<String> tagNames) {
+        if (tagNames.isEmpty()) {
+            return;
         }
 
-        tagsToAdd.forEach(post::addTag);
+        // Usually answered from memory: createMissing ran before this transaction opened
+        tagDictionary.resolve(tagNames).forEach(post::addTag);
     }
 }
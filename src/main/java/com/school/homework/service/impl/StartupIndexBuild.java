@@ -0,0 +1,69 @@
+package com.school.homework.service.impl;
+
+import com.school.homework.search.PostSearchIndex;
+import com.school.homework.search.TagPostIndex;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 启动时加载进程内索引（后台执行）
+ *
+ * <p>标签字典、全文索引和标签位图索引都要读取整张表，耗时与文章数量有关。
+ * Spring Boot 先执行完全部 ApplicationReadyEvent 监听器，才把就绪状态切换为 ACCEPTING_TRAFFIC，
+ * 因此这里只把加载任务交给专用的后台线程，监听器立即返回。</p>
+ *
+ * <p>加载完成之前各组件回退到数据库：标签字典未命中时查询 tags 表，
+ * 搜索和标签过滤在 {@code isReady()} 为 false 时使用 SQL 查询。加载期间的文章变更由
+ * PostChangedEvent 增量写入，不会被较旧的快照覆盖。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Component
+public class StartupIndexBuild {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupIndexBuild.class);
+
+    private final TagDictionary tagDictionary;
+    private final PostSearchIndex postSearchIndex;
+    private final TagPostIndex tagPostIndex;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "index-build");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StartupIndexBuild(TagDictionary tagDictionary, PostSearchIndex postSearchIndex,
+                             TagPostIndex tagPostIndex) {
+        this.tagDictionary = tagDictionary;
+        this.postSearchIndex = postSearchIndex;
+        this.tagPostIndex = tagPostIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        executor.execute(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void run() {
+        long start = System.currentTimeMillis();
+        // Smallest first: new posts resolve their tags from memory as early as possible
+        tagDictionary.load();
+        postSearchIndex.build();
+        tagPostIndex.build();
+        logger.info("In-memory indexes loaded in {} ms.", System.currentTimeMillis() - start);
+    }
+}
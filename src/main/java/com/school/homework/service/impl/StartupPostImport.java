@@ -0,0 +1,104 @@
+package com.school.homework.service.impl;
+
+import com.school.homework.dto.ImportProgressDto;
+import com.school.homework.dto.ImportReport;
+import com.school.homework.service.PostImportService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 启动时的 Markdown 文章导入（后台执行）
+ *
+ * <p>应用就绪（ApplicationReadyEvent，Web 服务器已开始接收请求）之后，在专用的后台线程中导入
+ * classpath:posts/ 下的文章，首个请求的响应时间不再取决于文章数量。导入期间新增的文章由
+ * 搜索索引和标签索引按变更事件增量加入。</p>
+ *
+ * <p>就绪状态（/actuator/health/readiness）不等待本导入：Spring Boot 先执行完全部
+ * ApplicationReadyEvent 监听器，再把就绪状态切换为 ACCEPTING_TRAFFIC，所以这里的监听器只提交后台任务、
+ * 立即返回（标签字典和搜索索引的加载同样在后台进行，见 {@link StartupIndexBuild}）。
+ * 同步完成的只有 {@link com.school.homework.config.DataInitializer} 中的权限、角色和默认用户。
+ * 导入进度通过 {@link #getProgress()} 查询（/admin/monitoring/import 和健康检查中的 postImport 组件）。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Component
+public class StartupPostImport {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupPostImport.class);
+
+    public enum State { DISABLED, PENDING, RUNNING, COMPLETED, FAILED }
+
+    private final PostImportService postImportService;
+    private final boolean enabled;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "post-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile State state;
+    /** 导入线程逐批更新，其他线程只读 */
+    private final ImportReport report = new ImportReport();
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public StartupPostImport(PostImportService postImportService,
+                             @Value("${app.import.on-startup:true}") boolean enabled) {
+        this.postImportService = postImportService;
+        this.enabled = enabled;
+        this.state = enabled ? State.PENDING : State.DISABLED;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            executor.execute(this::run);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void run() {
+        startedAt = Instant.now();
+        state = State.RUNNING;
+        try {
+            postImportService.importPostsFromResources(report);
+            state = State.COMPLETED;
+        } catch (Exception e) {
+            // Posts that were written stay; the next start imports the rest (see the import manifest)
+            error = e.getMessage();
+            state = State.FAILED;
+            logger.error("Startup post import failed", e);
+        } finally {
+            finishedAt = Instant.now();
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * @return 当前导入状态和已处理数量（导入进行中时为阶段性数字）
+     */
+    public ImportProgressDto getProgress() {
+        return new ImportProgressDto(state.name(), startedAt, finishedAt, report.getSources(), report.getProcessed(),
+                report.getImported(), report.getUpdated(), report.getUnchanged(), report.getSkipped(),
+                report.getFailed(), error);
+    }
+}
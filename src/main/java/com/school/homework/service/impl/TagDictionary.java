@@ -0,0 +1,247 @@
+package com.school.homework.service.impl;
+
+import com.school.homework.dao.TagRepository;
+import com.school.homework.entity.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 标签字典
+ *
+ * <p>进程内缓存 标签名 → 标签，应用就绪后在后台一次性加载全部标签；加载完成之前未命中的名称查询数据库。
+ * 创建/更新文章时标签解析通常只是一次内存查找，不再每次执行 findByNameIn。</p>
+ *
+ * <p>新标签的创建：
+ * <ul>
+ *   <li>文章服务在打开文章事务之前调用 {@link #createMissing}，新标签在自己的短事务中插入并立即提交；
+ *       之后事务中的 resolve 只是内存查找，不会在持有连接时再申请第二个连接</li>
+ *   <li>同一名称同一时刻只有一个线程执行插入（single-flight），并发的其他线程等待并共享结果</li>
+ *   <li>一篇文章带来的多个新标签在同一事务中批量插入</li>
+ *   <li>唯一约束冲突（例如另一个实例刚插入了同名标签）时改为重新查询</li>
+ *   <li>已处在调用方事务中时（例如导入批次）直接在该事务中插入，提交后才放入缓存</li>
+ * </ul>
+ * </p>
+ *
+ * <p>缓存中保存的是与任何持久化上下文无关的副本，只用于写入 post_tags 关联行。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Component
+public class TagDictionary {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagDictionary.class);
+
+    private final TagRepository tagRepository;
+
+    /** 插入新标签的事务（没有调用方事务时是自己的短事务） */
+    private final TransactionTemplate transaction;
+
+    private final ConcurrentHashMap<String, Tag> tags = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<Tag>> inFlight = new ConcurrentHashMap<>();
+
+    public TagDictionary(TagRepository tagRepository, PlatformTransactionManager transactionManager) {
+        this.tagRepository = tagRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 加载全部标签（启动后由 StartupIndexBuild 在后台线程调用）
+     */
+    public void load() {
+        try {
+            tagRepository.findAll().forEach(this::remember);
+            logger.info("Loaded {} tags into the tag dictionary.", tags.size());
+        } catch (Exception e) {
+            // Not fatal: unknown names are looked up in the database on first use
+            logger.error("Loading the tag dictionary failed", e);
+        }
+    }
+
+    /**
+     * 在文章事务打开之前创建尚不存在的标签
+     *
+     * <p>全部是已知标签时只做内存判断，不访问数据库。</p>
+     *
+     * @param names 标签名称
+     */
+    public void createMissing(Collection<String> names) {
+        if (!tags.keySet().containsAll(names)) {
+            resolve(names);
+        }
+    }
+
+    /**
+     * 将标签名解析为标签，不存在的标签会被创建
+     *
+     * @param names 标签名称
+     * @return 标签列表（与当前持久化上下文无关的副本）
+     */
+    public List<Tag> resolve(Collection<String> names) {
+        List<Tag> resolved = new ArrayList<>(names.size());
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            Tag tag = tags.get(name);
+            if (tag != null) {
+                resolved.add(tag);
+            } else {
+                missing.add(name);
+            }
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+
+        // Names created elsewhere since startup (or before the dictionary was loaded).
+        // Run in a transaction so that, outside one, no connection stays bound to the caller afterwards
+        for (Tag tag : transaction.execute(status -> tagRepository.findByNameIn(missing))) {
+            resolved.add(share(tag));
+            missing.remove(tag.getName());
+        }
+        if (missing.isEmpty()) {
+            return resolved;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Rows from an uncommitted transaction cannot be handed to other writers, so no single-flight here
+            tagRepository.saveAllAndFlush(missing.stream().map(Tag::new).toList())
+                    .forEach(tag -> resolved.add(share(tag)));
+        } else if (missing.size() == 1) {
+            resolved.add(create(missing.get(0)));
+        } else {
+            resolved.addAll(createAll(missing));
+        }
+        return resolved;
+    }
+
+    public int size() {
+        return tags.size();
+    }
+
+    private Tag create(String name) {
+        CompletableFuture<Tag> mine = new CompletableFuture<>();
+        CompletableFuture<Tag> running = inFlight.putIfAbsent(name, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+
+        try {
+            // Another thread may have finished creating it between our lookup and putIfAbsent
+            Tag tag = tags.get(name);
+            if (tag == null) {
+                tag = remember(insertOrFind(name));
+            }
+            mine.complete(tag);
+            return tag;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(name, mine);
+        }
+    }
+
+    /**
+     * 一次创建多个新标签：认领到的名称在同一个事务中批量插入，
+     * 其他线程正在创建的名称等待其结果
+     */
+    private List<Tag> createAll(List<String> names) {
+        Map<String, CompletableFuture<Tag>> claimed = new LinkedHashMap<>();
+        for (String name : names) {
+            CompletableFuture<Tag> mine = new CompletableFuture<>();
+            if (inFlight.putIfAbsent(name, mine) == null) {
+                claimed.put(name, mine);
+            }
+        }
+
+        try {
+            List<String> toInsert = claimed.keySet().stream().filter(name -> !tags.containsKey(name)).toList();
+            insertAll(toInsert).forEach(this::remember);
+            claimed.forEach((name, future) -> future.complete(tags.get(name)));
+        } catch (RuntimeException e) {
+            claimed.values().forEach(future -> future.completeExceptionally(e));
+            throw e;
+        } finally {
+            claimed.forEach(inFlight::remove);
+        }
+
+        List<Tag> created = new ArrayList<>(names.size());
+        for (String name : names) {
+            CompletableFuture<Tag> future = claimed.get(name);
+            created.add(future != null ? future.join() : create(name));
+        }
+        return created;
+    }
+
+    private List<Tag> insertAll(List<String> names) {
+        if (names.size() <= 1) {
+            return names.stream().map(this::insertOrFind).toList();
+        }
+        try {
+            // Sequence ids let these go out as one JDBC batch
+            return transaction.execute(status ->
+                    tagRepository.saveAllAndFlush(names.stream().map(Tag::new).toList()));
+        } catch (DataIntegrityViolationException e) {
+            // One of the names was inserted elsewhere meanwhile; settle each on its own
+            return names.stream().map(this::insertOrFind).toList();
+        }
+    }
+
+    private Tag insertOrFind(String name) {
+        try {
+            return transaction.execute(status -> tagRepository.saveAndFlush(new Tag(name)));
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race against another writer outside this process
+            return transaction.execute(status -> tagRepository.findByName(name)).orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * 已提交的标签马上放入缓存；调用方事务中的标签等事务提交后再放入
+     */
+    private Tag share(Tag tag) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return remember(tag);
+        }
+        Tag copy = copy(tag);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tags.put(copy.getName(), copy);
+            }
+        });
+        return copy;
+    }
+
+    private Tag remember(Tag tag) {
+        Tag copy = copy(tag);
+        tags.put(copy.getName(), copy);
+        return copy;
+    }
+
+    private static Tag copy(Tag tag) {
+        Tag copy = new Tag(tag.getName());
+        copy.setId(tag.getId());
+        copy.setCreatedAt(tag.getCreatedAt());
+        copy.setUpdatedAt(tag.getUpdatedAt());
+        return copy;
+    }
+}
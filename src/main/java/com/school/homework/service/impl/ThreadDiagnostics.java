@@ -0,0 +1,140 @@
+package com.school.homework.service.impl;
+
+import com.school.homework.dto.ThreadDiagnosticsDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 线程执行模式诊断
+ *
+ * <p>报告当前是否以虚拟线程处理请求（spring.threads.virtual.enabled，需要 Java 21），
+ * 并在开启 app.diagnostics.pinning.enabled 时通过 JFR 事件流订阅 jdk.VirtualThreadPinned：
+ * 虚拟线程在 synchronized 块或本地方法中阻塞超过阈值时，记录阻塞位置和时长。
+ * JDBC 驱动或本项目代码中的 synchronized 阻塞会占住载体线程，使虚拟线程退化为平台线程的并发度。</p>
+ *
+ * <p>统计按“第一个本项目栈帧”（没有时取栈顶）归类，结果见 /admin/monitoring/threads。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Component
+public class ThreadDiagnostics {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThreadDiagnostics.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.school.homework.";
+
+    /** 最多记录的不同阻塞位置数量，超过后归入 "other" */
+    private static final int MAX_SITES = 200;
+    private static final int TOP_SITES = 10;
+
+    private final boolean virtualThreadsEnabled;
+    private final boolean pinningEnabled;
+    private final Duration pinningThreshold;
+
+    private final AtomicLong pinnedEvents = new AtomicLong();
+    private final AtomicLong pinnedNanos = new AtomicLong();
+    private final Map<String, LongAdder> pinnedSites = new ConcurrentHashMap<>();
+
+    private RecordingStream recording;
+
+    public ThreadDiagnostics(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsRequested,
+                             @Value("${app.diagnostics.pinning.enabled:false}") boolean pinningEnabled,
+                             @Value("${app.diagnostics.pinning.threshold-ms:20}") long thresholdMillis) {
+        // Spring Boot only switches to virtual threads on Java 21+, the property is ignored below that
+        this.virtualThreadsEnabled = virtualThreadsRequested && javaVersion() >= 21;
+        this.pinningEnabled = pinningEnabled;
+        this.pinningThreshold = Duration.ofMillis(thresholdMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!pinningEnabled) {
+            return;
+        }
+        if (javaVersion() < 21) {
+            logger.info("Pinning diagnostics need Java 21 or newer; running on Java {}.", javaVersion());
+            return;
+        }
+        try {
+            RecordingStream stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(pinningThreshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+            recording = stream;
+            logger.info("Recording virtual thread pinning longer than {} ms.", pinningThreshold.toMillis());
+        } catch (RuntimeException e) {
+            // JFR may be unavailable (e.g. disabled in this runtime); diagnostics are optional
+            logger.warn("Could not start pinning diagnostics", e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    public ThreadDiagnosticsDto getSnapshot() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Map<String, Long> topSites = new LinkedHashMap<>();
+        pinnedSites.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().sum()))
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(TOP_SITES)
+                .forEach(entry -> topSites.put(entry.getKey(), entry.getValue()));
+        return new ThreadDiagnosticsDto(javaVersion(), virtualThreadsEnabled, recording != null,
+                threads.getThreadCount(), threads.getPeakThreadCount(), pinnedEvents.get(),
+                Duration.ofNanos(pinnedNanos.get()).toMillis(), topSites);
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedEvents.incrementAndGet();
+        pinnedNanos.addAndGet(event.getDuration().toNanos());
+        String site = site(event.getStackTrace());
+        if (!pinnedSites.containsKey(site) && pinnedSites.size() >= MAX_SITES) {
+            site = "other";
+        }
+        pinnedSites.computeIfAbsent(site, key -> new LongAdder()).increment();
+    }
+
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        RecordedFrame chosen = frames.get(0);
+        for (RecordedFrame frame : frames) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                chosen = frame;
+                break;
+            }
+        }
+        return chosen.getMethod().getType().getName() + "." + chosen.getMethod().getName()
+                + ":" + chosen.getLineNumber();
+    }
+
+    private static int javaVersion() {
+        return Runtime.version().feature();
+    }
+}
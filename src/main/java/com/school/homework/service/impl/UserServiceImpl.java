@@ -7,6 +7,7 @@ import com.school.homework.dto.UserDto;
 import com.school.homework.dto.UserProfileDto;
 import com.school.homework.entity.Role;
 import com.school.homework.entity.User;
+import com.school.homework.security.TtlUserCache;
 import com.school.homework.service.FileStorageService;
 import com.school.homework.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,14 +24,19 @@ public class UserServiceImpl implements UserService {
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final FileStorageService fileStorageService;
+    private final EntityCache entityCache;
+    private final TtlUserCache userCache;
 
     @Autowired
     public UserServiceImpl(UserRepository userRepository, RoleRepository roleRepository,
-            PasswordEncoder passwordEncoder, FileStorageService fileStorageService) {
+            PasswordEncoder passwordEncoder, FileStorageService fileStorageService, EntityCache entityCache,
+            TtlUserCache userCache) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.fileStorageService = fileStorageService;
+        this.entityCache = entityCache;
+        this.userCache = userCache;
     }
 
     @Override
@@ -89,6 +95,8 @@ public class UserServiceImpl implements UserService {
         }
 
         userRepository.save(user);
+        entityCache.evictUser(user.getId());
+        userCache.removeUserFromCache(user.getUsername());
     }
 
     @Override
@@ -101,6 +109,9 @@ public class UserServiceImpl implements UserService {
 
         user.setPassword(passwordEncoder.encode(userPasswordDto.getNewPassword()));
         userRepository.save(user);
+        entityCache.evictUser(user.getId());
+        // The old password must stop working right away, not when the cached entry expires
+        userCache.removeUserFromCache(user.getUsername());
     }
 
     private UserDto convertToDto(User user) {
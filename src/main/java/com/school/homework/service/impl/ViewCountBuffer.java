@@ -0,0 +1,113 @@
+package com.school.homework.service.impl;
+
+import com.school.homework.dao.PostRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 浏览次数写缓冲
+ *
+ * <p>查看文章时只在内存中递增计数（每篇文章一个 LongAdder，内部按线程分段，热点文章不争用），
+ * 由 ViewCountFlushTask 定期把累积的增量合并成一次 JDBC 批量更新写入数据库，
+ * 应用正常关闭时再做最后一次刷新。</p>
+ *
+ * <p>显示的浏览次数 = 数据库中的值 + 尚未写入的增量。</p>
+ *
+ * <p>刷新用 ReentrantLock 串行化而不是 synchronized：刷新期间执行 JDBC，
+ * 在虚拟线程上持有监视器阻塞会占住载体线程（pinning）。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Component
+public class ViewCountBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewCountBuffer.class);
+
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    private final PostRepository postRepository;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public ViewCountBuffer(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    public void increment(Long postId) {
+        pending.computeIfAbsent(postId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * 尚未写入数据库的浏览增量
+     */
+    public long getPending(Long postId) {
+        LongAdder adder = pending.get(postId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public void discard(Long postId) {
+        pending.remove(postId);
+    }
+
+    /**
+     * 将累积的增量批量写入数据库
+     *
+     * <p>写入失败时增量放回缓冲区，由下一次刷新重试。</p>
+     *
+     * @return 本次更新的文章数量
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            Map<Long, Long> deltas = drain();
+            if (deltas.isEmpty()) {
+                return 0;
+            }
+            try {
+                postRepository.addViewCounts(deltas);
+            } catch (RuntimeException e) {
+                deltas.forEach((id, delta) -> pending.computeIfAbsent(id, k -> new LongAdder()).add(delta));
+                throw e;
+            }
+            return deltas.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            int flushed = flush();
+            logger.info("Flushed pending view counts for {} posts on shutdown.", flushed);
+        } catch (RuntimeException e) {
+            logger.error("Could not flush pending view counts on shutdown", e);
+        }
+    }
+
+    private Map<Long, Long> drain() {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            Long postId = entry.getKey();
+            LongAdder adder = entry.getValue();
+            long delta = adder.sumThenReset();
+            if (delta == 0 && pending.remove(postId, adder)) {
+                // Idle counter removed; pick up increments that raced with the removal
+                delta = adder.sumThenReset();
+            }
+            if (delta != 0) {
+                deltas.put(postId, delta);
+            }
+        }
+        return deltas;
+    }
+}
@@ -0,0 +1,57 @@
+package com.school.homework.task;
+
+import com.school.homework.service.PostService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Markdown 重新渲染后台任务
+ *
+ * <p>定期查找 HTML 为空或渲染器版本过期的文章，按批次重新渲染并保存。
+ * 每个批次在独立事务中提交，避免一次性加载全部文章。</p>
+ *
+ * <p>当 MarkdownServiceImpl 的扩展配置变化并提升 RENDERER_VERSION 后，
+ * 旧文章会在后台逐步更新；在此之前详情页回退到带缓存的实时渲染。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Component
+public class MarkdownRerenderTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(MarkdownRerenderTask.class);
+
+    private final PostService postService;
+
+    /** 每个事务处理的文章数量 */
+    private final int batchSize;
+
+    public MarkdownRerenderTask(PostService postService,
+                                @Value("${app.markdown.rerender.batch-size:100}") int batchSize) {
+        this.postService = postService;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${app.markdown.rerender.initial-delay-ms:10000}",
+               fixedDelayString = "${app.markdown.rerender.interval-ms:300000}")
+    public void rerenderStalePosts() {
+        int total = 0;
+        try {
+            int processed;
+            do {
+                processed = postService.rerenderStaleHtml(batchSize);
+                total += processed;
+            } while (processed == batchSize);
+        } catch (Exception e) {
+            // Stop this run; the next scheduled run retries from the first stale row
+            logger.error("Re-rendering stale post HTML failed after {} posts", total, e);
+            return;
+        }
+        if (total > 0) {
+            logger.info("Re-rendered HTML for {} posts.", total);
+        }
+    }
+}
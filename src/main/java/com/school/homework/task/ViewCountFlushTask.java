@@ -0,0 +1,36 @@
+package com.school.homework.task;
+
+import com.school.homework.service.impl.ViewCountBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 浏览次数定期刷新任务
+ *
+ * <p>每隔几秒把 ViewCountBuffer 中累积的浏览增量批量写入数据库。</p>
+ *
+ * @author School Homework Team
+ * @version 1.0
+ */
+@Component
+public class ViewCountFlushTask {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViewCountFlushTask.class);
+
+    private final ViewCountBuffer viewCountBuffer;
+
+    public ViewCountFlushTask(ViewCountBuffer viewCountBuffer) {
+        this.viewCountBuffer = viewCountBuffer;
+    }
+
+    @Scheduled(fixedDelayString = "${app.view-count.flush-interval-ms:5000}")
+    public void flushViewCounts() {
+        try {
+            viewCountBuffer.flush();
+        } catch (Exception e) {
+            logger.warn("Flushing view counts failed, deltas kept for the next run", e);
+        }
+    }
+}
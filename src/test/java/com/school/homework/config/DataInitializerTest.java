@@ -0,0 +1,170 @@
+package com.school.homework.config;
+
+import com.school.homework.constant.AppConstants;
+import com.school.homework.dao.PermissionRepository;
+import com.school.homework.dao.RoleRepository;
+import com.school.homework.dao.SeedVersionRepository;
+import com.school.homework.dao.UserRepository;
+import com.school.homework.entity.Permission;
+import com.school.homework.entity.Role;
+import com.school.homework.entity.SeedVersion;
+import com.school.homework.entity.User;
+import com.school.homework.security.TtlUserCache;
+import com.school.homework.service.impl.EntityCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class DataInitializerTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @Mock
+    private PermissionRepository permissionRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SeedVersionRepository seedVersionRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityCache entityCache;
+
+    @Mock
+    private TtlUserCache userCache;
+
+    private DataInitializer initializer;
+
+    @BeforeEach
+    public void setup() {
+        initializer = new DataInitializer();
+        ReflectionTestUtils.setField(initializer, "adminUsername", "admin");
+        ReflectionTestUtils.setField(initializer, "adminPassword", "admin123");
+        ReflectionTestUtils.setField(initializer, "adminEmail", "admin@school.com");
+        ReflectionTestUtils.setField(initializer, "userUsername", "user");
+        ReflectionTestUtils.setField(initializer, "userPassword", "password");
+        ReflectionTestUtils.setField(initializer, "userEmail", "user@school.com");
+    }
+
+    @Test
+    public void whenSeedVersionIsCurrent_thenStartupRunsOneQuery() throws Exception {
+        SeedVersion marker = new SeedVersion(DataInitializer.SEED_NAME);
+        marker.setVersion(AppConstants.SEED_VERSION);
+        marker.setFingerprint(initializer.seedFingerprint());
+        given(seedVersionRepository.findById(DataInitializer.SEED_NAME)).willReturn(Optional.of(marker));
+
+        run();
+
+        verifyNoInteractions(permissionRepository, roleRepository, userRepository, passwordEncoder,
+                transactionManager, entityCache, userCache);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void whenDatabaseIsEmpty_thenEverythingIsInsertedInBatches() throws Exception {
+        given(seedVersionRepository.findById(DataInitializer.SEED_NAME)).willReturn(Optional.empty());
+        given(permissionRepository.findByNameIn(any())).willReturn(List.of());
+        given(roleRepository.findByNameIn(any())).willReturn(List.of());
+        given(userRepository.findByUsernameIn(any())).willReturn(List.of());
+        given(permissionRepository.saveAll(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+        given(roleRepository.saveAll(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+        given(passwordEncoder.encode(anyString())).willReturn("hash");
+
+        run();
+
+        ArgumentCaptor<List<Permission>> permissions = ArgumentCaptor.forClass(List.class);
+        verify(permissionRepository).saveAll(permissions.capture());
+        assertThat(permissions.getValue()).hasSize(6);
+        ArgumentCaptor<List<Role>> roles = ArgumentCaptor.forClass(List.class);
+        verify(roleRepository).saveAll(roles.capture());
+        assertThat(roles.getValue()).extracting(Role::getName)
+                .containsExactly(AppConstants.ROLE_ADMIN, AppConstants.ROLE_USER);
+        ArgumentCaptor<List<User>> users = ArgumentCaptor.forClass(List.class);
+        verify(userRepository).saveAll(users.capture());
+        assertThat(users.getValue()).extracting(User::getUsername).containsExactly("admin", "user");
+
+        ArgumentCaptor<SeedVersion> marker = ArgumentCaptor.forClass(SeedVersion.class);
+        verify(seedVersionRepository).save(marker.capture());
+        assertThat(marker.getValue().getVersion()).isEqualTo(AppConstants.SEED_VERSION);
+        assertThat(DataInitializer.isUpToDate(Optional.of(marker.getValue()), initializer.seedFingerprint())).isTrue();
+        verify(userCache).removeAll();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void whenVersionMoves_thenOnlyMissingSeedsAreAppliedAndNoPasswordIsRehashed() throws Exception {
+        SeedVersion marker = new SeedVersion(DataInitializer.SEED_NAME);
+        marker.setVersion(AppConstants.SEED_VERSION - 1);
+        marker.setFingerprint(initializer.seedFingerprint());
+        given(seedVersionRepository.findById(DataInitializer.SEED_NAME)).willReturn(Optional.of(marker));
+
+        List<Permission> existing = new ArrayList<>();
+        long id = 1;
+        for (String name : DataInitializer.ROLE_PERMISSIONS.get(AppConstants.ROLE_ADMIN)) {
+            existing.add(new Permission(id++, name));
+        }
+        given(permissionRepository.findByNameIn(any())).willReturn(existing);
+        Set<Permission> adminPermissions = new HashSet<>(existing);
+        // ROLE_USER predates COMMENT_CREATE
+        Set<Permission> userPermissions = existing.stream()
+                .filter(p -> p.getName().equals(AppConstants.PERM_POST_CREATE) || p.getName().equals(AppConstants.PERM_POST_READ))
+                .collect(Collectors.toCollection(HashSet::new));
+        given(roleRepository.findByNameIn(any())).willReturn(List.of(
+                new Role(1L, AppConstants.ROLE_ADMIN, adminPermissions),
+                new Role(2L, AppConstants.ROLE_USER, userPermissions)));
+        User admin = new User();
+        admin.setUsername("admin");
+        User user = new User();
+        user.setUsername("user");
+        given(userRepository.findByUsernameIn(any())).willReturn(List.of(admin, user));
+        given(permissionRepository.saveAll(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+        given(roleRepository.saveAll(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+
+        run();
+
+        ArgumentCaptor<List<Role>> roles = ArgumentCaptor.forClass(List.class);
+        verify(roleRepository).saveAll(roles.capture());
+        assertThat(roles.getValue()).extracting(Role::getName).containsExactly(AppConstants.ROLE_USER);
+        assertThat(userPermissions).extracting(Permission::getName).contains(AppConstants.PERM_COMMENT_CREATE);
+        verify(permissionRepository, times(1)).findByNameIn(any());
+        verify(userRepository).saveAll(List.of());
+        verifyNoInteractions(passwordEncoder);
+        assertThat(marker.getVersion()).isEqualTo(AppConstants.SEED_VERSION);
+    }
+
+    private void run() throws Exception {
+        initializer.initData(roleRepository, permissionRepository, userRepository, seedVersionRepository,
+                passwordEncoder, transactionManager, entityCache, userCache).run();
+    }
+}
@@ -0,0 +1,70 @@
+package com.school.homework.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A database created while ids were IDENTITY columns gets sequences that start
+ * after the existing rows, so old ids are kept and new ones never collide.
+ */
+public class IdSequenceInitializerTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:legacy;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE posts (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, title VARCHAR(50))");
+        jdbcTemplate.execute("INSERT INTO posts (title) VALUES ('first'), ('second')");
+        jdbcTemplate.execute("INSERT INTO posts (id, title) VALUES (120, 'imported')");
+    }
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    public void whenUpgradingIdentityTables_thenSequenceStartsAfterExistingIds() {
+        new IdSequenceInitializer(dataSource, 50).afterPropertiesSet();
+
+        // Pooled: the first value 170 hands out ids 121..170
+        assertThat(nextValue("posts_seq")).isEqualTo(170L);
+        assertThat(nextValue("comments_seq")).isEqualTo(50L);
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM posts ORDER BY id", Long.class))
+                .containsExactly(1L, 2L, 120L);
+    }
+
+    @Test
+    public void whenAllocationSizeChanges_thenSequenceNeverMovesBackwards() {
+        new IdSequenceInitializer(dataSource, 50).afterPropertiesSet();
+        assertThat(nextValue("posts_seq")).isEqualTo(170L);
+
+        new IdSequenceInitializer(dataSource, 10).afterPropertiesSet();
+
+        assertThat(nextValue("posts_seq")).isEqualTo(220L);
+        assertThat(nextValue("posts_seq")).isEqualTo(230L);
+    }
+
+    @Test
+    public void whenSequenceIsCurrent_thenItIsLeftAlone() {
+        IdSequenceInitializer initializer = new IdSequenceInitializer(dataSource, 50);
+        initializer.afterPropertiesSet();
+        nextValue("posts_seq");
+
+        initializer.afterPropertiesSet();
+
+        assertThat(nextValue("posts_seq")).isEqualTo(220L);
+    }
+
+    private Long nextValue(String sequence) {
+        return jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class);
+    }
+}
@@ -5,6 +5,8 @@ import com.school.homework.dao.UserRepository;
 import com.school.homework.entity.Post;
 import com.school.homework.entity.User;
 import com.school.homework.enums.PostStatus;
+import com.school.homework.service.impl.MarkdownServiceImpl;
+import com.school.homework.service.impl.ViewCountBuffer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,12 +16,15 @@ import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+// Keep the scheduled flush from draining the view-count buffer while a test looks at it
+@SpringBootTest(properties = "app.view-count.flush-interval-ms=3600000")
 @AutoConfigureMockMvc
 @Transactional
 public class BlogControllerIntegrationTest {
@@ -33,6 +38,9 @@ public class BlogControllerIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ViewCountBuffer viewCountBuffer;
+
     // We need to verify if MarkdownService is auto-wired correctly or mocking is
     // needed.
     // Since this is @SpringBootTest, it should pick up the real bean.
@@ -75,6 +83,53 @@ public class BlogControllerIntegrationTest {
                 .andExpect(content().string(containsString("Integration Test Post")));
     }
 
+    @Test
+    @WithMockUser(username = "user")
+    public void shouldServeStoredHtmlWhenRenderVersionIsCurrent() throws Exception {
+        testPost.setContentHtml("<p>Stored at write time</p>");
+        testPost.setRenderVersion(MarkdownServiceImpl.RENDERER_VERSION);
+        postRepository.save(testPost);
+
+        mockMvc.perform(get("/blog/posts/" + testPost.getId()))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("htmlContent", "<p>Stored at write time</p>"));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    public void shouldRenderContentWhenStoredHtmlIsStale() throws Exception {
+        // Written by an older renderer and not yet picked up by the re-render job
+        testPost.setContent("**Fresh** content");
+        testPost.setContentHtml("<p>Old renderer output</p>");
+        testPost.setRenderVersion(MarkdownServiceImpl.RENDERER_VERSION - 1);
+        postRepository.save(testPost);
+
+        mockMvc.perform(get("/blog/posts/" + testPost.getId()))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("htmlContent", containsString("<strong>Fresh</strong>")))
+                .andExpect(model().attribute("htmlContent", not(containsString("Old renderer output"))));
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    public void shouldNotCountViewsOfMissingPost() throws Exception {
+        Long missingId = testPost.getId() + 1000;
+
+        mockMvc.perform(get("/blog/posts/" + missingId))
+                .andExpect(view().name("error/404"));
+
+        assertThat(viewCountBuffer.getPending(missingId)).isZero();
+    }
+
+    @Test
+    @WithMockUser(username = "user")
+    public void shouldCountViewOfLoadedPost() throws Exception {
+        mockMvc.perform(get("/blog/posts/" + testPost.getId()))
+                .andExpect(status().isOk());
+
+        assertThat(viewCountBuffer.getPending(testPost.getId())).isEqualTo(1);
+    }
+
     @Test
     @WithMockUser(username = "user", authorities = { "POST_CREATE" })
     public void shouldCreatePost() throws Exception {
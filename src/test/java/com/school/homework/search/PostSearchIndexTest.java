@@ -0,0 +1,141 @@
+package com.school.homework.search;
+
+import com.school.homework.dao.PostRepository;
+import com.school.homework.entity.Post;
+import com.school.homework.entity.User;
+import com.school.homework.event.PostChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class PostSearchIndexTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    private PostSearchIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new PostSearchIndex(postRepository, 100, 3.0);
+        given(postRepository.findTextBatch(anyLong(), any())).willReturn(Collections.emptyList());
+        index.build();
+    }
+
+    @Test
+    public void whenBuilt_thenIndexIsReady() {
+        assertThat(index.isReady()).isTrue();
+    }
+
+    @Test
+    public void whenSearchLatinWord_thenMatchIsCaseInsensitive() {
+        index.onPostChanged(PostChangedEvent.saved(post(1L, "Spring Boot", "Intro to **JPA**")));
+        index.onPostChanged(PostChangedEvent.saved(post(2L, "Java", "Streams")));
+
+        assertThat(ids("spring")).containsExactly(1L);
+        assertThat(ids("JPA spring")).containsExactly(1L);
+        assertThat(ids("spring streams")).isEmpty();
+    }
+
+    @Test
+    public void whenSearchChinesePhrase_thenSubstringsMatch() {
+        index.onPostChanged(PostChangedEvent.saved(post(1L, "学习笔记", "今天学习了数据库索引")));
+        index.onPostChanged(PostChangedEvent.saved(post(2L, "随笔", "数据结构")));
+
+        assertThat(ids("数据库")).containsExactly(1L);
+        assertThat(ids("数据")).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids("笔")).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    public void whenPostUpdatedOrDeleted_thenOldTermsNoLongerMatch() {
+        index.onPostChanged(PostChangedEvent.saved(post(1L, "Draft", "old text")));
+        index.onPostChanged(PostChangedEvent.saved(post(1L, "Final", "new text")));
+
+        assertThat(ids("old")).isEmpty();
+        assertThat(ids("new")).containsExactly(1L);
+
+        index.onPostChanged(PostChangedEvent.deleted(1L));
+        assertThat(ids("new")).isEmpty();
+        assertThat(index.documentCount()).isZero();
+    }
+
+    @Test
+    public void whenTermInTitle_thenPostRanksHigher() {
+        index.onPostChanged(PostChangedEvent.saved(post(1L, "Notes", "a short note about hibernate caching")));
+        index.onPostChanged(PostChangedEvent.saved(post(2L, "Hibernate caching", "a short note about it")));
+        index.onPostChanged(PostChangedEvent.saved(post(3L, "Unrelated", "nothing to see")));
+
+        assertThat(ids("hibernate")).containsExactly(2L, 1L);
+        assertThat(index.search("hibernate").get(0).getScore()).isGreaterThan(index.search("hibernate").get(1).getScore());
+    }
+
+    @Test
+    public void whenSearchingWithAuthor_thenOnlyThatAuthorsPostsMatch() {
+        index.onPostChanged(PostChangedEvent.saved(post(1L, "Caching", "hibernate caching", 7L)));
+        index.onPostChanged(PostChangedEvent.saved(post(2L, "More caching", "hibernate caching again", 8L)));
+        index.onPostChanged(PostChangedEvent.saved(post(3L, "Hibernate caching", "third", 7L)));
+
+        assertThat(index.search("caching", 7L)).extracting(SearchHit::getPostId).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("caching", 9L)).isEmpty();
+        assertThat(index.search("caching", null)).hasSize(3);
+    }
+
+    @Test
+    public void whenSnippetRequested_thenWindowCoversMatchesFromStoredPositions() {
+        String content = "x".repeat(300) + " the index stores term positions " + "y".repeat(300);
+        index.onPostChanged(PostChangedEvent.saved(post(1L, "Title", content)));
+
+        SnippetWindow window = index.snippet(1L, "positions", 60);
+        int match = content.indexOf("positions");
+
+        assertThat(window.getStart()).isLessThanOrEqualTo(match);
+        assertThat(window.getEnd()).isGreaterThanOrEqualTo(match + "positions".length());
+        assertThat(window.length()).isEqualTo(60);
+
+        String html = SnippetHighlighter.toHtml(content.substring(window.getStart(), window.getEnd()), window);
+        assertThat(html).startsWith("...").endsWith("...").contains("<mark>positions</mark>");
+        assertThat(index.snippet(1L, "title", 60)).isNull();
+    }
+
+    @Test
+    public void whenSnippetHasOverlappingBigramsAndMarkup_thenHighlightIsMergedAndEscaped() {
+        String content = "<b>数据库</b>";
+        index.onPostChanged(PostChangedEvent.saved(post(1L, "T", content)));
+
+        SnippetWindow window = index.snippet(1L, "数据库", 150);
+
+        assertThat(SnippetHighlighter.toHtml(content, window)).isEqualTo("&lt;b&gt;<mark>数据库</mark>&lt;/b&gt;");
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query).stream().map(SearchHit::getPostId).toList();
+    }
+
+    private Post post(Long id, String title, String content) {
+        Post post = new Post();
+        post.setId(id);
+        post.setTitle(title);
+        post.setContent(content);
+        return post;
+    }
+
+    private Post post(Long id, String title, String content, Long authorId) {
+        User author = new User();
+        author.setId(authorId);
+        Post post = post(id, title, content);
+        post.setAuthor(author);
+        return post;
+    }
+}
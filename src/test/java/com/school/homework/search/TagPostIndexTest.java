@@ -0,0 +1,142 @@
+package com.school.homework.search;
+
+import com.school.homework.dao.PostRepository;
+import com.school.homework.dto.PostCursor;
+import com.school.homework.entity.Post;
+import com.school.homework.entity.Tag;
+import com.school.homework.entity.User;
+import com.school.homework.event.PostChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class TagPostIndexTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    private TagPostIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new TagPostIndex(postRepository, 100);
+        given(postRepository.findTagLinkBatch(anyLong(), anyLong(), any())).willReturn(Collections.emptyList());
+        index.build();
+
+        index.onPostChanged(PostChangedEvent.saved(post(1L, tag(10L, "java"), tag(11L, "spring"))));
+        index.onPostChanged(PostChangedEvent.saved(post(2L, tag(10L, "java"))));
+        index.onPostChanged(PostChangedEvent.saved(post(3L, tag(12L, "kotlin"))));
+    }
+
+    @Test
+    public void whenMatchAll_thenOnlyPostsWithEveryTag() {
+        assertThat(index.match(List.of("java", "spring"), false).toArray()).containsExactly(1L);
+        assertThat(index.match(List.of("java", "unknown"), false).isEmpty()).isTrue();
+    }
+
+    @Test
+    public void whenMatchAny_thenPostsWithAtLeastOneTag() {
+        assertThat(index.match(List.of("java", "kotlin", "unknown"), true).toArray()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    public void whenPostRetaggedOrDeleted_thenBitmapsAreUpdated() {
+        index.onPostChanged(PostChangedEvent.saved(post(2L, tag(12L, "kotlin"))));
+        assertThat(index.match(List.of("java"), false).toArray()).containsExactly(1L);
+        assertThat(index.match(List.of("kotlin"), false).toArray()).containsExactly(2L, 3L);
+
+        index.onPostChanged(PostChangedEvent.deleted(3L));
+        assertThat(index.match(List.of("kotlin"), false).toArray()).containsExactly(2L);
+    }
+    @Test
+    public void whenPagingMatchesByNumber_thenNewestFirstWithTotalFromTheBitmap() {
+        LocalDateTime noon = LocalDateTime.of(2024, 5, 1, 12, 0);
+        for (long id = 20; id < 30; id++) {
+            // Ids 24..26 share createdAt; the id breaks the tie
+            LocalDateTime createdAt = id >= 24 && id <= 26 ? noon : noon.plusHours(id);
+            index.onPostChanged(PostChangedEvent.saved(post(id, createdAt, id % 2 == 0 ? 7L : 8L, tag(13L, "jpa"))));
+        }
+        Roaring64Bitmap jpa = index.match(List.of("jpa"), false);
+
+        Page<Long> first = index.findIdPage(jpa, null, PageRequest.of(0, 4));
+        Page<Long> second = index.findIdPage(jpa, null, PageRequest.of(1, 4));
+        Page<Long> byAuthor = index.findIdPage(jpa, 7L, PageRequest.of(0, 10));
+
+        assertThat(first.getContent()).containsExactly(29L, 28L, 27L, 23L);
+        assertThat(second.getContent()).containsExactly(22L, 21L, 20L, 26L);
+        assertThat(first.getTotalElements()).isEqualTo(10);
+        assertThat(byAuthor.getContent()).containsExactly(28L, 22L, 20L, 26L, 24L);
+        assertThat(byAuthor.getTotalElements()).isEqualTo(5);
+        assertThat(index.findIdPage(jpa, null, PageRequest.of(3, 4)).getContent()).isEmpty();
+    }
+
+    @Test
+    public void whenSeekingMatchesFromACursor_thenBothDirectionsStopAtTheCursor() {
+        LocalDateTime noon = LocalDateTime.of(2024, 5, 1, 12, 0);
+        index.onPostChanged(PostChangedEvent.saved(post(40L, noon.minusDays(1), 7L, tag(13L, "jpa"))));
+        index.onPostChanged(PostChangedEvent.saved(post(41L, noon, 7L, tag(13L, "jpa"))));
+        index.onPostChanged(PostChangedEvent.saved(post(42L, noon, 7L, tag(13L, "jpa"))));
+        index.onPostChanged(PostChangedEvent.saved(post(43L, noon.plusDays(1), 7L, tag(13L, "jpa"))));
+        Roaring64Bitmap jpa = index.match(List.of("jpa"), false);
+        PostCursor at42 = new PostCursor(noon, 42L);
+
+        assertThat(index.findKeysetPage(jpa, null, null, false, 2)).extracting(PostCursor::getId)
+                .containsExactly(43L, 42L);
+        assertThat(index.findKeysetPage(jpa, null, at42, false, 5)).extracting(PostCursor::getId)
+                .containsExactly(41L, 40L);
+        // Backward: nearest to the cursor first, as the repository returns them
+        assertThat(index.findKeysetPage(jpa, null, at42, true, 5)).extracting(PostCursor::getId)
+                .containsExactly(43L);
+        assertThat(index.findKeysetPage(jpa, 8L, null, false, 5)).isEmpty();
+    }
+
+    @Test
+    public void whenPostDeleted_thenItIsNoLongerPaged() {
+        index.onPostChanged(PostChangedEvent.saved(post(50L, LocalDateTime.now(), 7L, tag(13L, "jpa"))));
+        Roaring64Bitmap stale = index.match(List.of("jpa"), false);
+
+        index.onPostChanged(PostChangedEvent.deleted(50L));
+
+        // A candidate set taken before the delete no longer yields the post
+        assertThat(index.findIdPage(stale, null, PageRequest.of(0, 5)).getContent()).isEmpty();
+    }
+
+    private Post post(Long id, LocalDateTime createdAt, Long authorId, Tag... tags) {
+        User author = new User();
+        author.setId(authorId);
+        Post post = post(id, tags);
+        post.setCreatedAt(createdAt);
+        post.setAuthor(author);
+        return post;
+    }
+
+    private Post post(Long id, Tag... tags) {
+        Post post = new Post();
+        post.setId(id);
+        for (Tag tag : tags) {
+            post.getTags().add(tag);
+        }
+        return post;
+    }
+
+    private Tag tag(Long id, String name) {
+        Tag tag = new Tag(name);
+        tag.setId(id);
+        return tag;
+    }
+}
@@ -0,0 +1,104 @@
+package com.school.homework.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TtlUserCacheTest {
+
+    private MutableClock clock;
+    private TtlUserCache userCache;
+
+    @BeforeEach
+    public void setup() {
+        clock = new MutableClock();
+        userCache = new TtlUserCache(60, 2, clock);
+    }
+
+    @Test
+    public void whenCachedUserCredentialsErased_thenCacheStillHoldsPassword() {
+        userCache.putUserInCache(user("alice"));
+
+        User first = (User) userCache.getUserFromCache("alice");
+        first.eraseCredentials();
+
+        UserDetails second = userCache.getUserFromCache("alice");
+        assertThat(second.getPassword()).isEqualTo("{bcrypt}hash");
+        assertThat(second.getAuthorities()).extracting("authority").containsExactlyInAnyOrder("ROLE_USER", "POST_READ");
+    }
+
+    @Test
+    public void whenTtlPassed_thenUserIsReloaded() {
+        userCache.putUserInCache(user("alice"));
+
+        clock.advance(Duration.ofSeconds(61));
+
+        assertThat(userCache.getUserFromCache("alice")).isNull();
+        assertThat(userCache.getCacheStats().getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenUserRemoved_thenNextLookupMisses() {
+        userCache.putUserInCache(user("alice"));
+        userCache.putUserInCache(user("bob"));
+
+        userCache.removeUserFromCache("alice");
+
+        assertThat(userCache.getUserFromCache("alice")).isNull();
+        assertThat(userCache.getUserFromCache("bob")).isNotNull();
+    }
+
+    @Test
+    public void whenFull_thenNewUsersAreNotCachedUntilEntriesExpire() {
+        userCache.putUserInCache(user("alice"));
+        clock.advance(Duration.ofSeconds(30));
+        userCache.putUserInCache(user("bob"));
+        userCache.putUserInCache(user("carol"));
+
+        assertThat(userCache.getUserFromCache("carol")).isNull();
+
+        clock.advance(Duration.ofSeconds(31));
+        userCache.putUserInCache(user("carol"));
+
+        assertThat(userCache.getUserFromCache("carol")).isNotNull();
+        assertThat(userCache.getUserFromCache("bob")).isNotNull();
+    }
+
+    private UserDetails user(String username) {
+        return new User(username, "{bcrypt}hash",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("POST_READ")));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
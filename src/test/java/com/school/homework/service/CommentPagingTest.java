@@ -0,0 +1,112 @@
+package com.school.homework.service;
+
+import com.school.homework.config.JpaConfig;
+import com.school.homework.dto.CommentDto;
+import com.school.homework.dto.CursorPage;
+import com.school.homework.entity.Comment;
+import com.school.homework.entity.Post;
+import com.school.homework.entity.User;
+import com.school.homework.enums.PostStatus;
+import com.school.homework.service.impl.CommentServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comments of a post are read one keyset page at a time, authors included, in a single statement.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({JpaConfig.class, CommentServiceImpl.class})
+public class CommentPagingTest {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Post post;
+
+    @BeforeEach
+    public void setup() {
+        post = new Post();
+        post.setTitle("Popular");
+        post.setContent("Everyone has an opinion");
+        post.setStatus(PostStatus.PUBLISHED);
+        post.setAuthor(user("writer"));
+        entityManager.persist(post);
+
+        Post other = new Post();
+        other.setTitle("Other");
+        other.setContent("Quiet");
+        other.setStatus(PostStatus.PUBLISHED);
+        other.setAuthor(post.getAuthor());
+        entityManager.persist(other);
+
+        List<User> readers = List.of(user("reader-0"), user("reader-1"), user("reader-2"));
+        for (int i = 0; i < 25; i++) {
+            comment(post, readers.get(i % readers.size()), "Comment " + i);
+            comment(other, readers.get(0), "Elsewhere " + i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void whenPagingThroughComments_thenEachCommentAppearsOnceInPostingOrder() {
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<CommentDto> page = commentService.getCommentsByPostId(post.getId(), cursor, 10);
+            page.getContent().forEach(comment -> seen.add(comment.getContent()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).hasSize(25).doesNotHaveDuplicates().startsWith("Comment 0", "Comment 1").endsWith("Comment 24");
+    }
+
+    @Test
+    public void whenLoadingAPage_thenAuthorsComeFromTheSameStatement() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CursorPage<CommentDto> page = commentService.getCommentsByPostId(post.getId(), null, 20);
+
+        assertThat(page.getContent()).hasSize(20);
+        assertThat(page.getContent()).extracting(CommentDto::getAuthorName)
+                .containsOnly("reader-0", "reader-1", "reader-2");
+        assertThat(page.hasNext()).isTrue();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("password");
+        user.setEmail(username + "@example.com");
+        entityManager.persist(user);
+        return user;
+    }
+
+    private void comment(Post target, User author, String content) {
+        Comment comment = new Comment();
+        comment.setPost(target);
+        comment.setAuthor(author);
+        comment.setContent(content);
+        entityManager.persist(comment);
+    }
+}
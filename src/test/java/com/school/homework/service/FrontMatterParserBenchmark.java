@@ -0,0 +1,112 @@
+package com.school.homework.service;
+
+import com.school.homework.service.impl.FrontMatterParser;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the streaming front-matter parser with the previous approach (line-by-line
+ * StringBuilder, DOTALL regex over the whole file, split) across file sizes.
+ * Not a unit test; run it through bench/front-matter.sh.
+ */
+public class FrontMatterParserBenchmark {
+
+    private static final int[] SIZES_KB = {4, 64, 512, 4096, 16384};
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Files.createTempDirectory("front-matter-bench");
+        System.out.printf("%10s %16s %16s %18s %18s%n", "size", "legacy us/op", "streaming us/op",
+                "legacy KB/op", "streaming KB/op");
+        for (int sizeKb : SIZES_KB) {
+            Path file = directory.resolve(sizeKb + "kb.md");
+            Files.writeString(file, sample(sizeKb * 1024));
+            FileSystemResource resource = new FileSystemResource(file);
+            int iterations = Math.max(5, 20_000 / sizeKb);
+
+            Result legacy = measure(iterations, () -> legacyParse(resource));
+            Result streaming = measure(iterations, () -> FrontMatterParser.parse(FrontMatterParser.read(resource)).getBody());
+            System.out.printf("%8dKB %16.1f %16.1f %18d %18d%n", sizeKb, legacy.micros, streaming.micros,
+                    legacy.allocatedKb, streaming.allocatedKb);
+            Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    private interface Parse {
+        Object run() throws IOException;
+    }
+
+    private static final class Result {
+        private final double micros;
+        private final long allocatedKb;
+
+        private Result(double micros, long allocatedKb) {
+            this.micros = micros;
+            this.allocatedKb = allocatedKb;
+        }
+    }
+
+    private static Result measure(int iterations, Parse parse) throws IOException {
+        for (int i = 0; i < iterations; i++) {
+            parse.run();
+        }
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            parse.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result(elapsed / 1000.0 / iterations, allocated / 1024 / iterations);
+    }
+
+    private static String sample(int bytes) {
+        StringBuilder sb = new StringBuilder("---\ntitle: Benchmark\nauthor: admin\ntags: [java, bench]\n---\n");
+        String row = "| 第一列 | column two | 123456 | some longer cell text for the table |\n";
+        while (sb.length() * 2 < bytes) {
+            sb.append(row);
+        }
+        return sb.toString();
+    }
+
+    /** The parser this benchmark replaced */
+    private static String legacyParse(FileSystemResource resource) throws IOException {
+        String content;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            StringBuilder sb = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                sb.append(line).append("\n");
+            }
+            content = sb.toString();
+        }
+        Pattern pattern = Pattern.compile("^---\\n(.*?)\\n---\\n(.*)", Pattern.DOTALL);
+        Matcher matcher = pattern.matcher(content);
+        if (!matcher.find()) {
+            return content;
+        }
+        Map<String, String> meta = new HashMap<>();
+        for (String line : matcher.group(1).split("\\n")) {
+            String[] parts = line.split(":", 2);
+            if (parts.length == 2) {
+                meta.put(parts[0].trim(), parts[1].trim());
+            }
+        }
+        return meta.get("title") + matcher.group(2).trim().length();
+    }
+}
@@ -0,0 +1,78 @@
+package com.school.homework.service;
+
+import com.school.homework.service.impl.FrontMatterParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FrontMatterParserTest {
+
+    @Test
+    public void whenTagsAreBlockList_thenEachItemIsATag() {
+        FrontMatterParser.Document document = parse("""
+                ---
+                title: "Notes: week 1"
+                author: admin
+                tags:
+                  - java
+                  - 'spring boot'
+                ---
+
+                # Heading
+                Body text.
+
+                """);
+
+        assertThat(document.getTitle()).isEqualTo("Notes: week 1");
+        assertThat(document.getAuthor()).isEqualTo("admin");
+        assertThat(document.getTags()).containsExactly("java", "spring boot");
+        assertThat(document.getBody()).isEqualTo("# Heading\nBody text.");
+    }
+
+    @Test
+    public void whenTagsAreInlineOrCommaSeparated_thenTheyAreSplit() {
+        assertThat(parse("---\ntags: [java, \"web\"]\ntitle: A\n---\nx").getTags()).containsExactly("java", "web");
+        assertThat(parse("---\ntags: java, web # legacy form\n---\nx").getTags()).containsExactly("java", "web");
+    }
+
+    @Test
+    public void whenWindowsLineEndingsAndBom_thenFrontMatterIsStillFound() {
+        FrontMatterParser.Document document = parse("\uFEFF---\r\ntitle: 标题\r\nauthor: admin\r\n---\r\n第一行\r\n第二行\r\n");
+
+        assertThat(document.getTitle()).isEqualTo("标题");
+        assertThat(document.getBody()).isEqualTo("第一行\n第二行");
+    }
+
+    @Test
+    public void whenNoClosingDelimiter_thenWholeFileIsBody() {
+        FrontMatterParser.Document document = parse("---\ntitle: never closed\nbody");
+
+        assertThat(document.getTitle()).isNull();
+        assertThat(document.getBody()).isEqualTo("---\ntitle: never closed\nbody");
+    }
+
+    @Test
+    public void whenLargeFileIsMapped_thenBodyIsComplete(@TempDir Path directory) throws Exception {
+        String body = "| col | value |\n".repeat(50_000).trim();
+        Path file = directory.resolve("large.md");
+        Files.writeString(file, "---\ntitle: Large\nauthor: admin\n---\n" + body + "\n");
+
+        ByteBuffer content = FrontMatterParser.read(new FileSystemResource(file));
+        FrontMatterParser.Document document = FrontMatterParser.parse(content);
+
+        assertThat(content.isDirect()).isTrue();
+        assertThat(document.getTitle()).isEqualTo("Large");
+        assertThat(document.getBody()).isEqualTo(body);
+    }
+
+    private FrontMatterParser.Document parse(String content) {
+        return FrontMatterParser.parse(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
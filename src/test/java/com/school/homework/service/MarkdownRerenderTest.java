@@ -0,0 +1,104 @@
+package com.school.homework.service;
+
+import com.school.homework.config.JpaConfig;
+import com.school.homework.dao.PostRepository;
+import com.school.homework.entity.Post;
+import com.school.homework.entity.User;
+import com.school.homework.enums.PostStatus;
+import com.school.homework.search.PostSearchIndex;
+import com.school.homework.search.TagPostIndex;
+import com.school.homework.service.impl.MarkdownServiceImpl;
+import com.school.homework.service.impl.PostServiceImpl;
+import com.school.homework.service.impl.TagDictionary;
+import com.school.homework.service.impl.ViewCountBuffer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The background re-render job rewrites only stale HTML and never overwrites HTML stored by a later edit.
+ */
+@DataJpaTest
+@Import({JpaConfig.class, PostServiceImpl.class, MarkdownServiceImpl.class, ViewCountBuffer.class,
+        PostSearchIndex.class, TagPostIndex.class, TagDictionary.class})
+public class MarkdownRerenderTest {
+
+    private static final int CURRENT = MarkdownServiceImpl.RENDERER_VERSION;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User author;
+
+    @BeforeEach
+    public void setup() {
+        author = new User();
+        author.setUsername("renderer");
+        author.setPassword("password");
+        author.setEmail("renderer@example.com");
+        entityManager.persist(author);
+    }
+
+    @Test
+    public void whenRerendering_thenOnlyStaleRowsAreRewritten() {
+        Post current = post("**current**", "<p>Stored at write time</p>", CURRENT, "current");
+        Post outdated = post("**outdated**", "<p>Old renderer output</p>", CURRENT - 1, "outdated");
+        Post neverRendered = post("**new**", null, null, null);
+        Post missingExcerpt = post("**excerpt**", "<p><strong>excerpt</strong></p>", CURRENT, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        int processed = postService.rerenderStaleHtml(10);
+        entityManager.clear();
+
+        assertThat(processed).isEqualTo(3);
+        assertThat(reload(current).getContentHtml()).isEqualTo("<p>Stored at write time</p>");
+        assertThat(reload(outdated).getContentHtml()).contains("<strong>outdated</strong>");
+        assertThat(reload(neverRendered).getContentHtml()).contains("<strong>new</strong>");
+        assertThat(reload(missingExcerpt).getExcerpt()).isEqualTo("**excerpt**");
+        assertThat(postService.rerenderStaleHtml(10)).isZero();
+    }
+
+    @Test
+    public void whenPostWasEditedAfterTheJobReadIt_thenTheStaleResultIsDiscarded() {
+        Post edited = post("Edited content", "<p>Edited content</p>", CURRENT, "Edited content");
+        entityManager.flush();
+        entityManager.clear();
+
+        // The job rendered the content it read before the edit committed
+        int updated = postRepository.updateRenderedContent(edited.getId(), "<p>Original content</p>",
+                "Original content", CURRENT);
+        entityManager.clear();
+
+        assertThat(updated).isZero();
+        assertThat(reload(edited).getContentHtml()).isEqualTo("<p>Edited content</p>");
+    }
+
+    private Post post(String content, String contentHtml, Integer renderVersion, String excerpt) {
+        Post post = new Post();
+        post.setTitle("Post " + content);
+        post.setContent(content);
+        post.setContentHtml(contentHtml);
+        post.setRenderVersion(renderVersion);
+        post.setExcerpt(excerpt);
+        post.setStatus(PostStatus.PUBLISHED);
+        post.setAuthor(author);
+        entityManager.persist(post);
+        return post;
+    }
+
+    private Post reload(Post post) {
+        return postRepository.findById(post.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,73 @@
+package com.school.homework.service;
+
+import com.school.homework.dto.CacheStatsDto;
+import com.school.homework.service.impl.MarkdownServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MarkdownServiceTest {
+
+    private final LocalDateTime version = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Test
+    public void whenRenderSameVersionTwice_thenSecondIsCacheHit() {
+        MarkdownService markdownService = new MarkdownServiceImpl(1024 * 1024);
+
+        String first = markdownService.renderPostToHtml(1L, version, "# Title");
+        String second = markdownService.renderPostToHtml(1L, version, "# Title");
+
+        assertThat(second).isSameAs(first);
+        CacheStatsDto stats = markdownService.getCacheStats();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenVersionChanges_thenContentIsRenderedAgain() {
+        MarkdownService markdownService = new MarkdownServiceImpl(1024 * 1024);
+
+        markdownService.renderPostToHtml(1L, version, "old");
+        String html = markdownService.renderPostToHtml(1L, version.plusMinutes(1), "new");
+
+        assertThat(html).contains("new");
+        assertThat(markdownService.getCacheStats().getMisses()).isEqualTo(2);
+        assertThat(markdownService.getCacheStats().getSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenWeightExceedsLimit_thenLeastRecentlyUsedIsEvicted() {
+        // Each entry weighs a little over 2 * 200 bytes, so only two fit
+        MarkdownService markdownService = new MarkdownServiceImpl(1000);
+        String body = "x".repeat(190);
+
+        markdownService.renderPostToHtml(1L, version, body);
+        markdownService.renderPostToHtml(2L, version, body);
+        markdownService.renderPostToHtml(1L, version, body);
+        markdownService.renderPostToHtml(3L, version, body);
+
+        CacheStatsDto stats = markdownService.getCacheStats();
+        assertThat(stats.getEvictions()).isEqualTo(1);
+        assertThat(stats.getWeightBytes()).isLessThanOrEqualTo(1000);
+
+        // Post 2 was the least recently used entry
+        markdownService.renderPostToHtml(1L, version, body);
+        markdownService.renderPostToHtml(2L, version, body);
+        assertThat(markdownService.getCacheStats().getHits()).isEqualTo(2);
+    }
+
+    @Test
+    public void whenPostEvicted_thenNextRenderIsMiss() {
+        MarkdownService markdownService = new MarkdownServiceImpl(1024 * 1024);
+
+        markdownService.renderPostToHtml(1L, version, "text");
+        markdownService.evictPost(1L);
+        markdownService.renderPostToHtml(1L, version, "text");
+
+        assertThat(markdownService.getCacheStats().getHits()).isZero();
+        assertThat(markdownService.getCacheStats().getMisses()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,81 @@
+package com.school.homework.service;
+
+import com.school.homework.service.impl.PostDirectoryWatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class PostDirectoryWatcherTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private PostImportService postImportService;
+
+    private PostDirectoryWatcher watcher;
+
+    @BeforeEach
+    public void setup() {
+        watcher = new PostDirectoryWatcher(postImportService, true, directory.toString(), 300, 5000);
+        watcher.start();
+        // Initial catch-up scan of the (empty) directory
+        verify(postImportService, timeout(5000)).importPosts(anyString(), anyList());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        watcher.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void whenManyFilesChangeInABurst_thenTheyAreImportedTogether() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            Files.writeString(directory.resolve("post-" + i + ".md"), "---\ntitle: " + i + "\n---\n");
+            Files.writeString(directory.resolve(".post-" + i + ".md.swp"), "editor state");
+        }
+
+        ArgumentCaptor<List<Resource>> changed = ArgumentCaptor.forClass(List.class);
+        verify(postImportService, after(2000).atMost(2)).importChanges(anyString(), changed.capture(), any());
+        assertThat(changed.getAllValues().stream().flatMap(List::stream).map(Resource::getFilename).distinct())
+                .hasSize(30)
+                .allMatch(name -> name.startsWith("post-") && name.endsWith(".md"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void whenFileDeleted_thenItIsReportedAsRemoved() throws Exception {
+        Path file = directory.resolve("old.md");
+        Files.writeString(file, "---\ntitle: Old\n---\n");
+        verify(postImportService, timeout(5000)).importChanges(anyString(), anyList(), any());
+        clearInvocations(postImportService);
+
+        Files.delete(file);
+
+        ArgumentCaptor<Collection<String>> removed = ArgumentCaptor.forClass(Collection.class);
+        verify(postImportService, timeout(5000)).importChanges(anyString(), anyList(), removed.capture());
+        assertThat(removed.getValue()).containsExactly("old.md");
+    }
+}
@@ -0,0 +1,151 @@
+package com.school.homework.service;
+
+import com.school.homework.dao.ImportManifestRepository;
+import com.school.homework.dao.PostRepository;
+import com.school.homework.dto.ImportReport;
+import com.school.homework.dto.PostDto;
+import com.school.homework.entity.ImportManifestEntry;
+import com.school.homework.entity.Post;
+import com.school.homework.enums.PostStatus;
+import com.school.homework.exception.ResourceNotFoundException;
+import com.school.homework.service.impl.PostImportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class PostImportServiceTest {
+
+    private static final String ORIGIN = "classpath:posts/";
+
+    @Mock
+    private PostService postService;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private ImportManifestRepository manifestRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PostImportServiceImpl importService;
+
+    @BeforeEach
+    public void setup() {
+        importService = new PostImportServiceImpl(postService, postRepository, manifestRepository,
+                transactionManager, 3, 2, true);
+    }
+
+    @Test
+    public void whenTitlesExistOrRepeat_thenTheyAreSkippedWithoutQueryingPerFile() {
+        given(postRepository.findAllTitles()).willReturn(List.of("Existing"));
+        List<Resource> files = new ArrayList<>();
+        files.add(markdown("a.md", "Existing", "admin"));
+        for (int i = 0; i < 7; i++) {
+            files.add(markdown("new-" + i + ".md", "New " + i, "admin"));
+        }
+        files.add(markdown("copy.md", "New 0", "admin"));
+        given(postService.createPost(any(PostDto.class), eq("admin"))).willReturn(new Post());
+
+        ImportReport report = importService.importPosts(ORIGIN, files);
+
+        assertThat(report.getSources()).isEqualTo(9);
+        assertThat(report.getImported()).isEqualTo(7);
+        assertThat(report.getSkipped()).isEqualTo(2);
+        assertThat(report.getFailed()).isZero();
+        verify(postRepository, times(1)).findAllTitles();
+        verify(postService, times(7)).createPost(any(PostDto.class), eq("admin"));
+    }
+
+    @Test
+    public void whenOnePostInBatchFails_thenOthersAreImportedAndFailureIsReported() {
+        given(postRepository.findAllTitles()).willReturn(List.of());
+        given(postService.createPost(any(PostDto.class), eq("admin"))).willReturn(new Post());
+        given(postService.createPost(any(PostDto.class), eq("ghost")))
+                .willThrow(new ResourceNotFoundException("User not found: ghost"));
+
+        ImportReport report = importService.importPosts(ORIGIN, List.of(
+                markdown("one.md", "One", "admin"),
+                markdown("bad.md", "Bad", "ghost"),
+                markdown("two.md", "Two", "admin"),
+                resource("plain.md", "no front matter")));
+
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailures()).extracting("source").containsExactlyInAnyOrder(ORIGIN + "bad.md", ORIGIN + "plain.md");
+        assertThat(report.getFailures()).extracting("message").contains("User not found: ghost");
+
+        ArgumentCaptor<PostDto> created = ArgumentCaptor.forClass(PostDto.class);
+        verify(postService, atLeastOnce()).createPost(created.capture(), eq("admin"));
+        assertThat(created.getAllValues()).extracting("title").contains("One", "Two");
+    }
+
+    @Test
+    public void whenReimporting_thenOnlyChangedSourcesAreWrittenAndRemovedOnesArchived() throws Exception {
+        Resource same = markdown("same.md", "Same", "admin");
+        Resource edited = markdown("edited.md", "Edited", "admin");
+        given(manifestRepository.findBySourcePathStartingWith(ORIGIN)).willReturn(List.of(
+                entry("same.md", sha256(same), 4L),
+                entry("edited.md", "outdated-hash", 5L),
+                entry("gone.md", "whatever", 6L)));
+        given(postRepository.findAllTitles()).willReturn(List.of("Same", "Edited"));
+        given(postRepository.existsById(5L)).willReturn(true);
+        given(postRepository.updateStatus(List.of(6L), PostStatus.ARCHIVED)).willReturn(1);
+
+        ImportReport report = importService.importPosts(ORIGIN, List.of(same, edited));
+
+        assertThat(report.getUnchanged()).isEqualTo(1);
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(report.getImported()).isZero();
+        assertThat(report.getArchived()).isEqualTo(1);
+        verify(postService).updatePost(eq(5L), any(PostDto.class), eq("admin"));
+        verify(postService, never()).createPost(any(PostDto.class), any());
+    }
+
+    private ImportManifestEntry entry(String filename, String hash, Long postId) {
+        ImportManifestEntry entry = new ImportManifestEntry(ORIGIN + filename);
+        entry.setContentHash(hash);
+        entry.setPostId(postId);
+        return entry;
+    }
+
+    private String sha256(Resource resource) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(resource.getContentAsByteArray());
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private Resource markdown(String filename, String title, String author) {
+        return resource(filename, "---\ntitle: " + title + "\nauthor: " + author + "\ntags: java\n---\n# " + title + "\n");
+    }
+
+    private Resource resource(String filename, String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        };
+    }
+}
@@ -0,0 +1,274 @@
+package com.school.homework.service;
+
+import com.school.homework.config.JpaConfig;
+import com.school.homework.dto.CursorPage;
+import com.school.homework.dto.PostCursor;
+import com.school.homework.dto.PostSearchCriteria;
+import com.school.homework.dto.PostSummaryDto;
+import com.school.homework.entity.Post;
+import com.school.homework.entity.Tag;
+import com.school.homework.entity.User;
+import com.school.homework.enums.PostStatus;
+import com.school.homework.search.PostSearchIndex;
+import com.school.homework.search.TagPostIndex;
+import com.school.homework.service.impl.MarkdownServiceImpl;
+import com.school.homework.service.impl.PostServiceImpl;
+import com.school.homework.service.impl.TagDictionary;
+import com.school.homework.service.impl.ViewCountBuffer;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Post list paging against the database: keyset cursors in both directions, ties on createdAt, bad tokens,
+ * page-number paging that pages ids in SQL, and tag filters paged in memory from the tag index.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({JpaConfig.class, PostServiceImpl.class, MarkdownServiceImpl.class, ViewCountBuffer.class,
+        PostSearchIndex.class, TagPostIndex.class, TagDictionary.class})
+public class PostListPagingTest {
+
+    private static final LocalDateTime NOON = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private TagPostIndex tagPostIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User author;
+
+    /** Post ids in list order: (createdAt DESC, id DESC) */
+    private List<Long> newestFirst;
+
+    @BeforeEach
+    public void setup() {
+        author = new User();
+        author.setUsername("pager");
+        author.setPassword("password");
+        author.setEmail("pager@example.com");
+        entityManager.persist(author);
+
+        // Seven posts; the middle three share one createdAt so a page boundary falls between them
+        Long oldest = post(NOON.minusDays(3));
+        Long older = post(NOON.minusDays(2));
+        Long tiedA = post(NOON);
+        Long tiedB = post(NOON);
+        Long tiedC = post(NOON);
+        Long newer = post(NOON.plusDays(1));
+        Long newest = post(NOON.plusDays(2));
+        entityManager.flush();
+        entityManager.clear();
+
+        newestFirst = List.of(newest, newer, tiedC, tiedB, tiedA, older, oldest);
+    }
+
+    @Test
+    public void whenPagingForward_thenEveryPostAppearsOnceNewestFirst() {
+        List<CursorPage<PostSummaryDto>> pages = pageForward(3);
+
+        assertThat(pages).hasSize(3);
+        assertThat(pages.stream().flatMap(page -> ids(page).stream()).toList()).isEqualTo(newestFirst);
+
+        CursorPage<PostSummaryDto> first = pages.get(0);
+        assertThat(first.hasPrevious()).isFalse();
+        assertThat(first.hasNext()).isTrue();
+        CursorPage<PostSummaryDto> last = pages.get(pages.size() - 1);
+        assertThat(last.hasPrevious()).isTrue();
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    public void whenPagingBackFromTheLastPage_thenTheForwardPagesComeBackInReverse() {
+        List<CursorPage<PostSummaryDto>> forward = pageForward(3);
+
+        List<List<Long>> backward = new ArrayList<>();
+        CursorPage<PostSummaryDto> page = forward.get(forward.size() - 1);
+        while (page.hasPrevious()) {
+            page = postService.searchPosts(new PostSearchCriteria(), null, page.getPreviousCursor(), 3);
+            backward.add(ids(page));
+        }
+        Collections.reverse(backward);
+
+        assertThat(backward).containsExactly(ids(forward.get(0)), ids(forward.get(1)));
+        // Back on the first page: nothing newer, and forward paging resumes from here
+        assertThat(page.hasPrevious()).isFalse();
+        assertThat(page.hasNext()).isTrue();
+        assertThat(ids(postService.searchPosts(new PostSearchCriteria(), page.getNextCursor(), null, 3)))
+                .isEqualTo(ids(forward.get(1)));
+    }
+
+    @Test
+    public void whenCreatedAtIsEqual_thenIdBreaksTheTieAcrossPages() {
+        // Size 3 ends the first page on tiedC; the next page must continue with tiedB, tiedA
+        CursorPage<PostSummaryDto> first = postService.searchPosts(new PostSearchCriteria(), null, null, 3);
+        CursorPage<PostSummaryDto> second = postService.searchPosts(new PostSearchCriteria(), first.getNextCursor(), null, 3);
+
+        assertThat(ids(first)).endsWith(newestFirst.get(2));
+        assertThat(ids(second)).containsExactly(newestFirst.get(3), newestFirst.get(4), newestFirst.get(5));
+        assertThat(second.getContent()).extracting(PostSummaryDto::getCreatedAt).startsWith(NOON, NOON);
+    }
+
+    @Test
+    public void whenPagingPastTheOldestPost_thenThePageIsEmptyAndLeadsBack() {
+        Long oldest = newestFirst.get(newestFirst.size() - 1);
+        String afterOldest = new PostCursor(NOON.minusDays(3), oldest).encode();
+
+        CursorPage<PostSummaryDto> page = postService.searchPosts(new PostSearchCriteria(), afterOldest, null, 3);
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.hasNext()).isFalse();
+        assertThat(page.getPreviousCursor()).isEqualTo(afterOldest);
+        assertThat(ids(postService.searchPosts(new PostSearchCriteria(), null, page.getPreviousCursor(), 3)))
+                .containsExactly(newestFirst.get(3), newestFirst.get(4), newestFirst.get(5));
+    }
+
+    @Test
+    public void whenCursorIsMalformed_thenTheFirstPageIsReturned() {
+        List<Long> firstPage = newestFirst.subList(0, 3);
+
+        for (String token : List.of("not a cursor", token("null|" + newestFirst.get(3)), token("2024-05-01T12:00|x"))) {
+            CursorPage<PostSummaryDto> page = postService.searchPosts(new PostSearchCriteria(), token, null, 3);
+            assertThat(ids(page)).as(token).isEqualTo(firstPage);
+            assertThat(page.hasPrevious()).as(token).isFalse();
+        }
+    }
+
+    @Test
+    public void whenCursorIsEncoded_thenDecodingRestoresIt() {
+        PostCursor cursor = new PostCursor(NOON.withNano(123_000_000), 42L);
+
+        assertThat(PostCursor.decode(cursor.encode())).isEqualTo(cursor);
+        assertThat(PostCursor.decode(null)).isNull();
+        assertThat(PostCursor.decode(" ")).isNull();
+        assertThat(PostCursor.decode(token("null|42"))).isNull();
+        assertThat(PostCursor.decode(token("2024-05-01T12:00"))).isNull();
+    }
+
+    @Test
+    public void whenPagingByNumber_thenPagesFollowTheListOrderWithTotals() {
+        Page<PostSummaryDto> first = postService.searchPosts(new PostSearchCriteria(), byNewest(0, 3));
+        Page<PostSummaryDto> second = postService.searchPosts(new PostSearchCriteria(), byNewest(1, 3));
+        Page<PostSummaryDto> last = postService.searchPosts(new PostSearchCriteria(), byNewest(2, 3));
+        Page<PostSummaryDto> beyond = postService.searchPosts(new PostSearchCriteria(), byNewest(3, 3));
+
+        assertThat(ids(first)).isEqualTo(newestFirst.subList(0, 3));
+        assertThat(ids(second)).isEqualTo(newestFirst.subList(3, 6));
+        assertThat(ids(last)).isEqualTo(newestFirst.subList(6, 7));
+        assertThat(beyond.getContent()).isEmpty();
+        assertThat(List.of(first, second, last, beyond)).allSatisfy(page -> {
+            assertThat(page.getTotalElements()).isEqualTo(7);
+            assertThat(page.getTotalPages()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    public void whenTheFirstPageHoldsEveryPost_thenNoCountQueryRuns() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        Page<PostSummaryDto> whole = postService.searchPosts(new PostSearchCriteria(), byNewest(0, 10));
+        long wholeQueries = statistics.getQueryExecutionCount();
+        statistics.clear();
+        postService.searchPosts(new PostSearchCriteria(), byNewest(0, 3));
+        long partialQueries = statistics.getQueryExecutionCount();
+
+        assertThat(whole.getTotalElements()).isEqualTo(7);
+        // Same id page, summaries and tag names; only the partial page needs the count
+        assertThat(partialQueries).isEqualTo(wholeQueries + 1);
+    }
+
+    @Test
+    public void whenFilteringByTag_thenPagesAreCutFromTheTagIndex() {
+        Tag paging = new Tag("paging");
+        entityManager.persist(paging);
+        entityManager.flush();
+        // Newest first; tiedC and tiedA are split by an untagged post with the same createdAt
+        List<Long> tagged = List.of(newestFirst.get(1), newestFirst.get(2), newestFirst.get(4), newestFirst.get(6));
+        for (Long postId : tagged) {
+            entityManager.createNativeQuery("INSERT INTO post_tags (post_id, tag_id) VALUES (?1, ?2)")
+                    .setParameter(1, postId)
+                    .setParameter(2, paging.getId())
+                    .executeUpdate();
+        }
+        PostSearchCriteria criteria = new PostSearchCriteria();
+        criteria.setTag("paging");
+
+        // The links were written behind the index's back; load them like a restart would
+        tagPostIndex.build();
+        Page<PostSummaryDto> first = postService.searchPosts(criteria, byNewest(0, 3));
+        Page<PostSummaryDto> second = postService.searchPosts(criteria, byNewest(1, 3));
+        CursorPage<PostSummaryDto> firstByCursor = postService.searchPosts(criteria, null, null, 3);
+        CursorPage<PostSummaryDto> secondByCursor = postService.searchPosts(criteria, firstByCursor.getNextCursor(), null, 3);
+
+        assertThat(ids(first)).isEqualTo(tagged.subList(0, 3));
+        assertThat(ids(second)).isEqualTo(tagged.subList(3, 4));
+        assertThat(first.getTotalElements()).isEqualTo(4);
+        assertThat(ids(firstByCursor)).isEqualTo(tagged.subList(0, 3));
+        assertThat(ids(secondByCursor)).isEqualTo(tagged.subList(3, 4));
+        assertThat(secondByCursor.hasNext()).isFalse();
+    }
+
+    private static PageRequest byNewest(int page, int size) {
+        return PageRequest.of(page, size, Sort.by("createdAt").descending());
+    }
+
+    private List<CursorPage<PostSummaryDto>> pageForward(int size) {
+        List<CursorPage<PostSummaryDto>> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<PostSummaryDto> page = postService.searchPosts(new PostSearchCriteria(), cursor, null, size);
+            pages.add(page);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return pages;
+    }
+
+    private Long post(LocalDateTime createdAt) {
+        Post post = new Post();
+        post.setTitle("Post at " + createdAt);
+        post.setContent("Content");
+        post.setStatus(PostStatus.PUBLISHED);
+        post.setAuthor(author);
+        entityManager.persist(post);
+        entityManager.flush();
+        // Auditing stamps the current time on insert; move the row to the wanted position in the list
+        entityManager.createNativeQuery("UPDATE posts SET created_at = ?1 WHERE id = ?2")
+                .setParameter(1, createdAt)
+                .setParameter(2, post.getId())
+                .executeUpdate();
+        return post.getId();
+    }
+
+    private static List<Long> ids(CursorPage<PostSummaryDto> page) {
+        return page.getContent().stream().map(PostSummaryDto::getId).toList();
+    }
+
+    private static List<Long> ids(Page<PostSummaryDto> page) {
+        return page.getContent().stream().map(PostSummaryDto::getId).toList();
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
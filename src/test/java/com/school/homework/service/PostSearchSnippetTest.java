@@ -0,0 +1,74 @@
+package com.school.homework.service;
+
+import com.school.homework.config.JpaConfig;
+import com.school.homework.dto.PostSearchCriteria;
+import com.school.homework.dto.PostSummaryDto;
+import com.school.homework.entity.Post;
+import com.school.homework.entity.User;
+import com.school.homework.search.PostSearchIndex;
+import com.school.homework.search.TagPostIndex;
+import com.school.homework.service.impl.MarkdownServiceImpl;
+import com.school.homework.service.impl.PostServiceImpl;
+import com.school.homework.service.impl.TagDictionary;
+import com.school.homework.service.impl.ViewCountBuffer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyword search reads the snippet windows of a whole result page in one statement.
+ */
+@DataJpaTest
+@Import({JpaConfig.class, PostServiceImpl.class, MarkdownServiceImpl.class, ViewCountBuffer.class,
+        PostSearchIndex.class, TagPostIndex.class, TagDictionary.class})
+public class PostSearchSnippetTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    public void whenSearchingByKeyword_thenEveryHitGetsItsOwnSnippet() {
+        User author = new User();
+        author.setUsername("snippets");
+        author.setPassword("password");
+        author.setEmail("snippets@example.com");
+        entityManager.persist(author);
+        Post early = post(author, "Early", "zephyr opens this post");
+        Post late = post(author, "Late", "x".repeat(300) + " and only here comes zephyr at the end");
+        entityManager.flush();
+        // The posts never commit, so no change event reaches the index; load them like a restart would
+        postSearchIndex.build();
+
+        PostSearchCriteria criteria = new PostSearchCriteria();
+        criteria.setQuery("zephyr");
+        Map<Long, String> snippets = postService.searchPosts(criteria, PageRequest.of(0, 10)).getContent().stream()
+                .collect(Collectors.toMap(PostSummaryDto::getId, PostSummaryDto::getSnippetHtml));
+
+        assertThat(snippets).containsOnlyKeys(early.getId(), late.getId());
+        assertThat(snippets.get(early.getId())).startsWith("<mark>zephyr</mark> opens");
+        assertThat(snippets.get(late.getId())).startsWith("...").endsWith("<mark>zephyr</mark> at the end");
+    }
+
+    private Post post(User author, String title, String content) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setContent(content);
+        post.setAuthor(author);
+        entityManager.persist(post);
+        return post;
+    }
+}
@@ -1,23 +1,38 @@
 package com.school.homework.service;
 
 import com.school.homework.dao.PostRepository;
-import com.school.homework.dao.TagRepository;
 import com.school.homework.dao.UserRepository;
+import com.school.homework.dto.CursorPage;
+import com.school.homework.dto.PostCursor;
 import com.school.homework.dto.PostDto;
+import com.school.homework.dto.PostSearchCriteria;
+import com.school.homework.dto.PostSummaryDto;
 import com.school.homework.entity.Post;
 import com.school.homework.entity.Tag;
 import com.school.homework.entity.User;
+import com.school.homework.search.PostSearchIndex;
+import com.school.homework.search.SearchHit;
+import com.school.homework.search.SnippetWindow;
+import com.school.homework.search.TagPostIndex;
 import com.school.homework.service.impl.PostServiceImpl;
+import com.school.homework.service.impl.TagDictionary;
+import com.school.homework.service.impl.ViewCountBuffer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -25,7 +40,13 @@ import java.util.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,7 +59,25 @@ public class PostServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private TagRepository tagRepository;
+    private TagDictionary tagDictionary;
+
+    @Mock
+    private MarkdownService markdownService;
+
+    @Mock
+    private ViewCountBuffer viewCountBuffer;
+
+    @Mock
+    private PostSearchIndex postSearchIndex;
+
+    @Mock
+    private TagPostIndex tagPostIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private PostServiceImpl postService;
@@ -80,6 +119,31 @@ public class PostServiceTest {
         assertThat(createdPost.getAuthor()).isEqualTo(user);
     }
 
+    @Test
+    public void whenCreatePostWithLongContent_thenExcerptIsAbbreviated() {
+        postDto.setContent("a".repeat(200));
+        given(userRepository.findByUsername("testuser")).willReturn(Optional.of(user));
+        given(postRepository.save(any(Post.class))).willAnswer(invocation -> invocation.getArgument(0));
+
+        Post createdPost = postService.createPost(postDto, "testuser");
+
+        assertThat(createdPost.getExcerpt()).hasSize(150).endsWith("...");
+    }
+
+    @Test
+    public void whenCreatePost_thenRenderedHtmlIsStoredWithRendererVersion() {
+        given(userRepository.findByUsername("testuser")).willReturn(Optional.of(user));
+        given(postRepository.save(any(Post.class))).willAnswer(invocation -> invocation.getArgument(0));
+        given(markdownService.renderToHtml("Test Content")).willReturn("<p>Test Content</p>");
+        given(markdownService.getRendererVersion()).willReturn(3);
+
+        Post createdPost = postService.createPost(postDto, "testuser");
+
+        assertThat(createdPost.getContentHtml()).isEqualTo("<p>Test Content</p>");
+        assertThat(createdPost.getRenderVersion()).isEqualTo(3);
+        assertThat(createdPost.getExcerpt()).isEqualTo("Test Content");
+    }
+
     @Test
     public void whenCreatePostWithTags_thenReturnPostWithTags() {
         String tagString = "Java, Spring";
@@ -89,24 +153,123 @@ public class PostServiceTest {
         given(postRepository.save(any(Post.class))).willAnswer(invocation -> invocation.getArgument(0));
 
         // Mocking for tags
+        Tag javaTag = new Tag("Java");
+        javaTag.setId(10L);
         Tag springTag = new Tag("Spring");
         springTag.setId(11L);
 
-        // Batch find
-        given(tagRepository.findByNameIn(any())).willReturn(Arrays.asList(springTag)); // "Spring" exists
-
-        // Batch save for "Java"
-        given(tagRepository.saveAll(any())).willAnswer(invocation -> {
-            List<Tag> tags = invocation.getArgument(0);
-            tags.forEach(t -> t.setId(10L));
-            return tags;
-        });
+        given(tagDictionary.resolve(Set.of("Java", "Spring"))).willReturn(Arrays.asList(javaTag, springTag));
 
         Post createdPost = postService.createPost(postDto, "testuser");
 
         assertThat(createdPost).isNotNull();
         assertThat(createdPost.getTags()).hasSize(2);
         assertThat(createdPost.getTags()).extracting("name").contains("Java", "Spring");
+        // Missing tags are created before the post transaction opens
+        InOrder inOrder = inOrder(tagDictionary, transactionManager);
+        inOrder.verify(tagDictionary).createMissing(Set.of("Java", "Spring"));
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(tagDictionary).resolve(Set.of("Java", "Spring"));
+    }
+
+    @Test
+    public void whenKeywordSearchFiltersByAuthor_thenHitsAreFilteredInTheIndex() {
+        PostSearchCriteria criteria = new PostSearchCriteria();
+        criteria.setQuery("spring");
+        criteria.setAuthorUsername("testuser");
+        given(postSearchIndex.isReady()).willReturn(true);
+        given(userRepository.findByUsername("testuser")).willReturn(Optional.of(user));
+        given(postSearchIndex.search("spring", 1L)).willReturn(List.of(new SearchHit(5L, 2.0), new SearchHit(3L, 1.0)));
+        given(postRepository.findSummariesByIdIn(List.of(5L, 3L))).willReturn(List.of(
+                new PostSummaryDto(3L, "B", "", LocalDateTime.now(), 0, "testuser", null),
+                new PostSummaryDto(5L, "A", "", LocalDateTime.now(), 0, "testuser", null)));
+
+        Page<PostSummaryDto> page = postService.searchPosts(criteria, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(PostSummaryDto::getId).containsExactly(5L, 3L);
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        verify(postRepository, never()).findIdPage(any(), any());
+    }
+
+    @Test
+    public void whenKeywordSearchHasSnippets_thenFragmentsAreReadInOneCall() {
+        PostSearchCriteria criteria = new PostSearchCriteria();
+        criteria.setQuery("spring");
+        given(postSearchIndex.isReady()).willReturn(true);
+        given(postSearchIndex.search("spring", null)).willReturn(List.of(new SearchHit(5L, 2.0), new SearchHit(3L, 1.0)));
+        given(postRepository.findSummariesByIdIn(List.of(5L, 3L))).willReturn(List.of(
+                new PostSummaryDto(3L, "B", "", LocalDateTime.now(), 0, "testuser", null),
+                new PostSummaryDto(5L, "A", "", LocalDateTime.now(), 0, "testuser", null)));
+        given(postSearchIndex.snippet(eq(5L), eq("spring"), anyInt()))
+                .willReturn(new SnippetWindow(0, 6, 6, List.<int[]>of(new int[]{0, 6})));
+        given(postSearchIndex.snippet(eq(3L), eq("spring"), anyInt()))
+                .willReturn(new SnippetWindow(4, 14, 14, List.<int[]>of(new int[]{8, 14})));
+        given(postRepository.findContentFragments(any())).willReturn(Map.of(5L, "spring", 3L, "use spring"));
+
+        Page<PostSummaryDto> page = postService.searchPosts(criteria, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(PostSummaryDto::getSnippetHtml)
+                .containsExactly("<mark>spring</mark>", "...use <mark>spring</mark>");
+        ArgumentCaptor<Map<Long, int[]>> ranges = ArgumentCaptor.forClass(Map.class);
+        verify(postRepository, times(1)).findContentFragments(ranges.capture());
+        assertThat(ranges.getValue().get(5L)).containsExactly(1, 6);
+        assertThat(ranges.getValue().get(3L)).containsExactly(5, 10);
+    }
+
+    @Test
+    public void whenKeywordSearchNamesUnknownAuthor_thenNothingIsSearched() {
+        PostSearchCriteria criteria = new PostSearchCriteria();
+        criteria.setQuery("spring");
+        criteria.setAuthorUsername("nobody");
+        given(postSearchIndex.isReady()).willReturn(true);
+        given(userRepository.findByUsername("nobody")).willReturn(Optional.empty());
+
+        Page<PostSummaryDto> page = postService.searchPosts(criteria, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).isEmpty();
+        assertThat(page.getTotalElements()).isZero();
+        verify(postSearchIndex, never()).search(anyString(), any());
+    }
+
+    @Test
+    public void whenFilteringByTags_thenPageIsCutFromTheTagIndex() {
+        PostSearchCriteria criteria = new PostSearchCriteria();
+        criteria.setTags(List.of("java"));
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("createdAt").descending());
+        Roaring64Bitmap java = Roaring64Bitmap.bitmapOf(1L, 2L, 3L);
+        given(tagPostIndex.isReady()).willReturn(true);
+        given(tagPostIndex.match(Set.of("java"), false)).willReturn(java);
+        given(tagPostIndex.findIdPage(java, null, pageable)).willReturn(new PageImpl<>(List.of(3L), pageable, 3));
+        given(postRepository.findSummariesByIdIn(List.of(3L))).willReturn(List.of(
+                new PostSummaryDto(3L, "C", "", LocalDateTime.now(), 0, "testuser", null)));
+
+        Page<PostSummaryDto> page = postService.searchPosts(criteria, pageable);
+
+        assertThat(page.getContent()).extracting(PostSummaryDto::getId).containsExactly(3L);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        verify(postRepository, never()).findIdPage(any(), any());
+    }
+
+    @Test
+    public void whenCursorPagingByTags_thenKeysComeFromTheTagIndex() {
+        PostSearchCriteria criteria = new PostSearchCriteria();
+        criteria.setTag("java");
+        criteria.setAuthorUsername("testuser");
+        Roaring64Bitmap java = Roaring64Bitmap.bitmapOf(1L, 2L);
+        LocalDateTime now = LocalDateTime.now();
+        given(tagPostIndex.isReady()).willReturn(true);
+        given(tagPostIndex.match(Set.of("java"), false)).willReturn(java);
+        given(userRepository.findByUsername("testuser")).willReturn(Optional.of(user));
+        given(tagPostIndex.findKeysetPage(java, 1L, null, false, 2))
+                .willReturn(List.of(new PostCursor(now, 2L), new PostCursor(now.minusDays(1), 1L)));
+        given(postRepository.findSummariesByIdIn(List.of(2L))).willReturn(List.of(
+                new PostSummaryDto(2L, "B", "", now, 0, "testuser", null)));
+
+        CursorPage<PostSummaryDto> page = postService.searchPosts(criteria, null, null, 1);
+
+        assertThat(page.getContent()).extracting(PostSummaryDto::getId).containsExactly(2L);
+        assertThat(page.getNextCursor()).isEqualTo(new PostCursor(now, 2L).encode());
+        verify(postRepository, never()).findKeysetPage(any(), any(), anyBoolean(), anyInt());
     }
 
     @Test
@@ -134,13 +297,10 @@ public class PostServiceTest {
         given(postRepository.findById(postId)).willReturn(Optional.of(post));
         given(postRepository.save(any(Post.class))).willAnswer(i -> i.getArgument(0));
 
-        // Mock tag batch
-        given(tagRepository.findByNameIn(any())).willReturn(Collections.emptyList());
-        given(tagRepository.saveAll(any())).willAnswer(i -> {
-            List<Tag> t = i.getArgument(0);
-            t.forEach(tag -> tag.setId(20L));
-            return t;
-        });
+        // Mock tag resolution
+        Tag newTag = new Tag("NewTag");
+        newTag.setId(20L);
+        given(tagDictionary.resolve(Set.of("NewTag"))).willReturn(List.of(newTag));
 
         Post updatedPost = postService.updatePost(postId, updates, "testuser");
 
@@ -149,4 +309,56 @@ public class PostServiceTest {
         assertThat(updatedPost.getTags()).hasSize(1);
         assertThat(updatedPost.getTags().iterator().next().getName()).isEqualTo("NewTag");
     }
+
+    @Test
+    public void whenUpdatePost_thenHtmlIsRenderedFromNewContent() {
+        post.setContentHtml("<p>Test Content</p>");
+        post.setRenderVersion(2);
+        postDto.setContent("Edited");
+
+        given(postRepository.findById(1L)).willReturn(Optional.of(post));
+        given(postRepository.save(any(Post.class))).willAnswer(i -> i.getArgument(0));
+        given(markdownService.renderToHtml("Edited")).willReturn("<p>Edited</p>");
+        given(markdownService.getRendererVersion()).willReturn(3);
+
+        Post updatedPost = postService.updatePost(1L, postDto, "testuser");
+
+        assertThat(updatedPost.getContentHtml()).isEqualTo("<p>Edited</p>");
+        assertThat(updatedPost.getRenderVersion()).isEqualTo(3);
+        assertThat(updatedPost.getExcerpt()).isEqualTo("Edited");
+        verify(markdownService).evictPost(1L);
+    }
+
+    @Test
+    public void whenUpdatePostWithSameTags_thenTagsAreNotLookedUp() {
+        post.addTag(new Tag("Java"));
+        post.addTag(new Tag("Spring"));
+        postDto.setTagString("Spring, Java");
+
+        given(postRepository.findById(1L)).willReturn(Optional.of(post));
+        given(postRepository.save(any(Post.class))).willAnswer(i -> i.getArgument(0));
+
+        Post updatedPost = postService.updatePost(1L, postDto, "testuser");
+
+        assertThat(updatedPost.getTags()).extracting("name").containsExactlyInAnyOrder("Java", "Spring");
+        verify(tagDictionary, never()).resolve(any());
+    }
+
+    @Test
+    public void whenUpdatePostWithChangedTags_thenOnlyAddedTagsAreLookedUp() {
+        post.addTag(new Tag("Java"));
+        post.addTag(new Tag("Spring"));
+        postDto.setTagString("Java, Kotlin");
+        Tag kotlin = new Tag("Kotlin");
+        kotlin.setId(30L);
+
+        given(postRepository.findById(1L)).willReturn(Optional.of(post));
+        given(postRepository.save(any(Post.class))).willAnswer(i -> i.getArgument(0));
+        given(tagDictionary.resolve(Set.of("Kotlin"))).willReturn(List.of(kotlin));
+
+        Post updatedPost = postService.updatePost(1L, postDto, "testuser");
+
+        assertThat(updatedPost.getTags()).extracting("name").containsExactlyInAnyOrder("Java", "Kotlin");
+        verify(tagDictionary).resolve(Set.of("Kotlin"));
+    }
 }
@@ -0,0 +1,107 @@
+package com.school.homework.service;
+
+import com.school.homework.config.JpaConfig;
+import com.school.homework.dao.PostRepository;
+import com.school.homework.dao.TagRepository;
+import com.school.homework.dao.UserRepository;
+import com.school.homework.dto.PostDto;
+import com.school.homework.entity.User;
+import com.school.homework.search.PostSearchIndex;
+import com.school.homework.search.TagPostIndex;
+import com.school.homework.service.impl.MarkdownServiceImpl;
+import com.school.homework.service.impl.PostServiceImpl;
+import com.school.homework.service.impl.TagDictionary;
+import com.school.homework.service.impl.ViewCountBuffer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent writers that bring new tags must not need a second connection while the post
+ * transaction holds the first one; with a pool this small that would time out.
+ * Runs without a test transaction so that every writer commits like a real request.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tagpool;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=1000"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({JpaConfig.class, PostServiceImpl.class, MarkdownServiceImpl.class, ViewCountBuffer.class,
+        PostSearchIndex.class, TagPostIndex.class, TagDictionary.class})
+public class PostTagConcurrencyTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @AfterEach
+    public void cleanup() {
+        postRepository.deleteAll();
+        tagRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void whenManyWritersCreateTagsOnASmallPool_thenEveryPostIsSaved() throws Exception {
+        User author = new User();
+        author.setUsername("pooled");
+        author.setPassword("password");
+        author.setEmail("pooled@example.com");
+        userRepository.save(author);
+
+        int writers = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                PostDto dto = new PostDto();
+                dto.setTitle("Pooled " + i);
+                dto.setContent("body");
+                dto.setTagString("shared, own-" + i);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return postService.createPost(dto, "pooled").getId();
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < writers; i++) {
+                Long postId = results.get(i).get(30, TimeUnit.SECONDS);
+                assertThat(postService.getPostDtoById(postId).getTagString().split(", "))
+                        .containsExactlyInAnyOrder("shared", "own-" + i);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(postRepository.count()).isEqualTo(writers);
+        assertThat(tagRepository.findByNameIn(Set.of("shared"))).hasSize(1);
+        assertThat(tagRepository.count()).isEqualTo(writers + 1);
+    }
+}
@@ -0,0 +1,178 @@
+package com.school.homework.service;
+
+import com.school.homework.config.JpaConfig;
+import com.school.homework.dao.TagRepository;
+import com.school.homework.dao.UserRepository;
+import com.school.homework.dto.PostDto;
+import com.school.homework.entity.Post;
+import com.school.homework.entity.Tag;
+import com.school.homework.entity.User;
+import com.school.homework.search.PostSearchIndex;
+import com.school.homework.search.TagPostIndex;
+import com.school.homework.service.impl.MarkdownServiceImpl;
+import com.school.homework.service.impl.PostServiceImpl;
+import com.school.homework.service.impl.TagDictionary;
+import com.school.homework.service.impl.ViewCountBuffer;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Regression test: attaching a tag to a post must only write post_tags rows,
+ * whatever the number of posts that already carry the tag.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({JpaConfig.class, PostServiceImpl.class, MarkdownServiceImpl.class, ViewCountBuffer.class,
+        PostSearchIndex.class, TagPostIndex.class, TagDictionary.class})
+public class PostTagWriteTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private TagDictionary tagDictionary;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate committed;
+
+    private User author;
+    private Tag java;
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        committed = new TransactionTemplate(transactionManager);
+        committed.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        author = new User();
+        author.setUsername("tagger");
+        author.setPassword("password");
+        author.setEmail("tagger@example.com");
+        author = userRepository.save(author);
+        // Committed and cached before the test transaction, like any tag that already exists
+        java = committed.execute(status -> tagDictionary.resolve(Set.of("java", "spring"))).stream()
+                .filter(tag -> tag.getName().equals("java")).findFirst().orElseThrow();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void whenTagIsPopular_thenCreatingPostCostsTheSame() {
+        addPostsWithTag(1);
+        Statistics stats = createPostTagged("java");
+        long statements = stats.getPrepareStatementCount();
+        long entityLoads = stats.getEntityLoadCount();
+        long collectionLoads = stats.getCollectionLoadCount();
+
+        addPostsWithTag(200);
+        stats = createPostTagged("java");
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(stats.getEntityLoadCount()).isEqualTo(entityLoads);
+        assertThat(stats.getCollectionLoadCount()).isEqualTo(collectionLoads);
+        assertThat(Hibernate.isInitialized(tagRepository.findByName("java").orElseThrow().getPosts())).isFalse();
+    }
+
+    @Test
+    public void whenTagIsPopular_thenEditingPostCostsTheSame() {
+        addPostsWithTag(1);
+        Statistics stats = retagNewPost();
+        long statements = stats.getPrepareStatementCount();
+        long entityLoads = stats.getEntityLoadCount();
+
+        addPostsWithTag(200);
+        stats = retagNewPost();
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(stats.getEntityLoadCount()).isEqualTo(entityLoads);
+        assertThat(Hibernate.isInitialized(tagRepository.findByName("java").orElseThrow().getPosts())).isFalse();
+    }
+
+    @Test
+    public void whenTagsUnchanged_thenPostTagsRowsAreNotRewritten() {
+        Long postId = postService.createPost(postDto("java, spring"), author.getUsername()).getId();
+
+        startCounting();
+        postService.updatePost(postId, postDto("spring, java"), author.getUsername());
+        entityManager.flush();
+
+        assertThat(statistics.getCollectionUpdateCount()).isZero();
+        assertThat(statistics.getCollectionRecreateCount()).isZero();
+        assertThat(statistics.getQueryExecutionCount()).isZero();
+    }
+
+    @Test
+    public void whenManyPostsInserted_thenInsertsAreBatched() {
+        startCounting();
+        addPostsWithTag(120);
+
+        // Sequence ids: a few nextval calls plus one statement per JDBC batch, not one per row
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(12);
+    }
+
+    private Statistics createPostTagged(String tags) {
+        startCounting();
+        postService.createPost(postDto(tags), author.getUsername());
+        entityManager.flush();
+        return statistics;
+    }
+
+    private Statistics retagNewPost() {
+        Long postId = postService.createPost(postDto("spring"), author.getUsername()).getId();
+        startCounting();
+        postService.updatePost(postId, postDto("java, spring"), author.getUsername());
+        entityManager.flush();
+        return statistics;
+    }
+
+    private void startCounting() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    private void addPostsWithTag(int count) {
+        Tag tag = entityManager.find(Tag.class, java.getId());
+        User user = entityManager.find(User.class, author.getId());
+        for (int i = 0; i < count; i++) {
+            Post post = new Post();
+            post.setTitle("Existing " + i);
+            post.setContent("content");
+            post.setAuthor(user);
+            post.addTag(tag);
+            entityManager.persist(post);
+        }
+        entityManager.flush();
+    }
+
+    private PostDto postDto(String tags) {
+        PostDto dto = new PostDto();
+        dto.setTitle("New post");
+        dto.setContent("body");
+        dto.setTagString(tags);
+        return dto;
+    }
+}
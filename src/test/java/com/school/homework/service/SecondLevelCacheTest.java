@@ -0,0 +1,114 @@
+package com.school.homework.service;
+
+import com.school.homework.config.JpaConfig;
+import com.school.homework.config.SecondLevelCacheConfig;
+import com.school.homework.dao.PermissionRepository;
+import com.school.homework.dao.RoleRepository;
+import com.school.homework.dao.UserRepository;
+import com.school.homework.entity.Permission;
+import com.school.homework.entity.Role;
+import com.school.homework.entity.User;
+import com.school.homework.service.impl.EntityCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Login-path lookups (user by name with its roles and permissions) are served from
+ * the second-level and query caches once warm. Runs without a test transaction so
+ * that every repository call commits and populates the caches like a real request.
+ */
+@DataJpaTest
+@Import({JpaConfig.class, SecondLevelCacheConfig.class, EntityCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private EntityCache entityCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        Permission permission = new Permission();
+        permission.setName("POST_READ");
+        permission = permissionRepository.save(permission);
+
+        Role role = new Role();
+        role.setName("ROLE_READER");
+        role.setPermissions(Set.of(permission));
+        role = roleRepository.save(role);
+
+        User user = new User();
+        user.setUsername("cached");
+        user.setPassword("password");
+        user.setEmail("cached@example.com");
+        user.setRoles(Set.of(role));
+        userRepository.save(user);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        permissionRepository.deleteAll();
+    }
+
+    @Test
+    public void whenUserLoadedTwice_thenSecondLoadRunsNoSql() {
+        loadUserWithAuthorities();
+
+        statistics.clear();
+        User user = loadUserWithAuthorities();
+
+        assertThat(user.getRoles()).extracting("name").containsExactly("ROLE_READER");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenUserEvicted_thenNextLoadReadsDatabase() {
+        User user = loadUserWithAuthorities();
+        loadUserWithAuthorities();
+
+        entityCache.evictUser(user.getId());
+        statistics.clear();
+        loadUserWithAuthorities();
+
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+        assertThat(entityCache.getStats()).extracting("name").contains("hibernate:users", "hibernate:roles");
+    }
+
+    private User loadUserWithAuthorities() {
+        User user = userRepository.findByUsername("cached").orElseThrow();
+        // Roles and permissions are EAGER, touching them must not trigger lazy loading
+        user.getRoles().forEach(role -> role.getPermissions().size());
+        return user;
+    }
+}
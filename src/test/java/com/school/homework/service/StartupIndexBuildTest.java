@@ -0,0 +1,77 @@
+package com.school.homework.service;
+
+import com.school.homework.dao.PostRepository;
+import com.school.homework.search.PostSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Readiness must not wait for the in-memory indexes: the search index build below blocks until
+ * the test releases it, and the application still reports ACCEPTING_TRAFFIC meanwhile.
+ */
+@SpringBootTest
+public class StartupIndexBuildTest {
+
+    private static final CountDownLatch building = new CountDownLatch(1);
+    private static final CountDownLatch release = new CountDownLatch(1);
+
+    @TestConfiguration
+    static class SlowIndexConfig {
+
+        @Bean
+        @Primary
+        PostSearchIndex slowPostSearchIndex(PostRepository postRepository) {
+            return new PostSearchIndex(postRepository, 500, 3.0) {
+                @Override
+                public void build() {
+                    building.countDown();
+                    try {
+                        release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    super.build();
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @AfterEach
+    public void cleanup() {
+        release.countDown();
+    }
+
+    @Test
+    public void whenIndexesAreStillBuilding_thenReadinessAcceptsTraffic() throws Exception {
+        assertThat(building.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(availability.getReadinessState()).isEqualTo(ReadinessState.ACCEPTING_TRAFFIC);
+        assertThat(postSearchIndex.isReady()).isFalse();
+
+        release.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!postSearchIndex.isReady() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(postSearchIndex.isReady()).isTrue();
+    }
+}
@@ -0,0 +1,101 @@
+package com.school.homework.service;
+
+import com.school.homework.dto.ImportProgressDto;
+import com.school.homework.dto.ImportReport;
+import com.school.homework.service.impl.StartupPostImport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class StartupPostImportTest {
+
+    @Mock
+    private PostImportService postImportService;
+
+    private StartupPostImport startupImport;
+
+    @AfterEach
+    public void cleanup() {
+        if (startupImport != null) {
+            startupImport.stop();
+        }
+    }
+
+    @Test
+    public void whenImportRunsInBackground_thenProgressIsVisibleBeforeItCompletes() throws Exception {
+        CountDownLatch halfway = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        given(postImportService.importPostsFromResources(any(ImportReport.class))).willAnswer(invocation -> {
+            ImportReport report = invocation.getArgument(0);
+            report.setSources(4);
+            report.addImported(2);
+            report.addFailure("classpath:posts/bad.md", "Missing front matter (title or author)");
+            halfway.countDown();
+            assertThat(finish.await(5, TimeUnit.SECONDS)).isTrue();
+            report.addSkipped();
+            return report;
+        });
+        startupImport = new StartupPostImport(postImportService, true);
+
+        // Returns immediately; the import runs on its own thread
+        startupImport.start();
+        assertThat(halfway.await(5, TimeUnit.SECONDS)).isTrue();
+
+        ImportProgressDto running = startupImport.getProgress();
+        assertThat(running.getState()).isEqualTo("RUNNING");
+        assertThat(running.getSources()).isEqualTo(4);
+        assertThat(running.getProcessed()).isEqualTo(3);
+        assertThat(running.getImported()).isEqualTo(2);
+        assertThat(running.getFailed()).isEqualTo(1);
+        assertThat(running.getFinishedAt()).isNull();
+
+        finish.countDown();
+        awaitState(StartupPostImport.State.COMPLETED);
+        ImportProgressDto done = startupImport.getProgress();
+        assertThat(done.getProcessed()).isEqualTo(4);
+        assertThat(done.getSkipped()).isEqualTo(1);
+        assertThat(done.getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    public void whenImportThrows_thenStateIsFailedWithTheReason() throws Exception {
+        given(postImportService.importPostsFromResources(any(ImportReport.class)))
+                .willThrow(new IOException("posts directory unreadable"));
+        startupImport = new StartupPostImport(postImportService, true);
+
+        startupImport.start();
+
+        awaitState(StartupPostImport.State.FAILED);
+        assertThat(startupImport.getProgress().getError()).isEqualTo("posts directory unreadable");
+    }
+
+    @Test
+    public void whenDisabled_thenNothingIsImported() {
+        startupImport = new StartupPostImport(postImportService, false);
+
+        startupImport.start();
+
+        assertThat(startupImport.getProgress().getState()).isEqualTo("DISABLED");
+        verifyNoInteractions(postImportService);
+    }
+
+    private void awaitState(StartupPostImport.State expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (startupImport.getState() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(startupImport.getState()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,149 @@
+package com.school.homework.service;
+
+import com.school.homework.dao.TagRepository;
+import com.school.homework.entity.Tag;
+import com.school.homework.service.impl.TagDictionary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class TagDictionaryTest {
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TagDictionary tagDictionary;
+
+    @BeforeEach
+    public void setup() {
+        tagDictionary = new TagDictionary(tagRepository, transactionManager);
+    }
+
+    @Test
+    public void whenTagsLoaded_thenResolveDoesNotQueryDatabase() {
+        given(tagRepository.findAll()).willReturn(List.of(tag(1L, "java"), tag(2L, "spring")));
+        tagDictionary.load();
+
+        List<Tag> tags = tagDictionary.resolve(Set.of("java", "spring"));
+
+        assertThat(tags).extracting("id").containsExactlyInAnyOrder(1L, 2L);
+        verify(tagRepository, never()).findByNameIn(any());
+        verify(tagRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    public void whenManyWritersCreateSameTag_thenOnlyOneInsertRuns() throws Exception {
+        int writers = 8;
+        CountDownLatch allLookedUp = new CountDownLatch(writers);
+        given(tagRepository.findByNameIn(any())).willAnswer(i -> {
+            allLookedUp.countDown();
+            return Collections.emptyList();
+        });
+        given(tagRepository.saveAndFlush(any())).willAnswer(i -> {
+            // Hold the insert until every writer has missed the cache
+            allLookedUp.await(5, TimeUnit.SECONDS);
+            Tag tag = i.getArgument(0);
+            tag.setId(7L);
+            return tag;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<List<Tag>>> results = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                results.add(executor.submit(() -> tagDictionary.resolve(Set.of("rust"))));
+            }
+            for (Future<List<Tag>> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).extracting("id").containsExactly(7L);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(tagRepository, times(1)).saveAndFlush(any());
+        assertThat(tagDictionary.resolve(Set.of("rust"))).extracting("id").containsExactly(7L);
+    }
+
+    @Test
+    public void whenInsertHitsUniqueConstraint_thenExistingTagIsReturned() {
+        given(tagRepository.findByNameIn(any())).willReturn(Collections.emptyList());
+        given(tagRepository.saveAndFlush(any())).willThrow(new DataIntegrityViolationException("duplicate"));
+        given(tagRepository.findByName("go")).willReturn(Optional.of(tag(9L, "go")));
+
+        List<Tag> tags = tagDictionary.resolve(Set.of("go"));
+
+        assertThat(tags).extracting("id").containsExactly(9L);
+    }
+
+    @Test
+    public void whenAllTagsKnown_thenCreateMissingDoesNotQueryDatabase() {
+        given(tagRepository.findAll()).willReturn(List.of(tag(1L, "java")));
+        tagDictionary.load();
+
+        tagDictionary.createMissing(Set.of("java"));
+
+        verify(tagRepository, never()).findByNameIn(any());
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    public void whenCreatedInsideCallerTransaction_thenTagIsCachedOnlyAfterCommit() {
+        given(tagRepository.findByNameIn(any())).willReturn(Collections.emptyList());
+        given(tagRepository.saveAllAndFlush(any())).willAnswer(i -> {
+            List<Tag> tags = i.getArgument(0);
+            tags.get(0).setId(5L);
+            return tags;
+        });
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThat(tagDictionary.resolve(Set.of("zig"))).extracting("id").containsExactly(5L);
+            // Not visible to other writers while the caller's transaction may still roll back
+            assertThat(tagDictionary.size()).isZero();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(tagDictionary.size()).isEqualTo(1);
+        // Inserted directly in the caller's transaction, without the single-flight insert of its own
+        verify(tagRepository).saveAllAndFlush(any());
+        verify(tagRepository, never()).saveAndFlush(any());
+    }
+
+    private Tag tag(Long id, String name) {
+        Tag tag = new Tag(name);
+        tag.setId(id);
+        return tag;
+    }
+}
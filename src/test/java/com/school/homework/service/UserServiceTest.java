@@ -5,6 +5,8 @@ import com.school.homework.dao.UserRepository;
 import com.school.homework.dto.RegisterDto;
 import com.school.homework.entity.Role;
 import com.school.homework.entity.User;
+import com.school.homework.security.TtlUserCache;
+import com.school.homework.service.impl.EntityCache;
 import com.school.homework.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,6 +38,12 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private EntityCache entityCache;
+
+    @Mock
+    private TtlUserCache userCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
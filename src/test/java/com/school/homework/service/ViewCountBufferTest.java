@@ -0,0 +1,62 @@
+package com.school.homework.service;
+
+import com.school.homework.dao.PostRepository;
+import com.school.homework.service.impl.ViewCountBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ViewCountBufferTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @InjectMocks
+    private ViewCountBuffer viewCountBuffer;
+
+    @Test
+    public void whenFlush_thenDeltasWrittenInOneBatch() {
+        viewCountBuffer.increment(1L);
+        viewCountBuffer.increment(1L);
+        viewCountBuffer.increment(1L);
+        viewCountBuffer.increment(2L);
+
+        assertThat(viewCountBuffer.getPending(1L)).isEqualTo(3);
+
+        int flushed = viewCountBuffer.flush();
+
+        assertThat(flushed).isEqualTo(2);
+        verify(postRepository).addViewCounts(Map.of(1L, 3L, 2L, 1L));
+        assertThat(viewCountBuffer.getPending(1L)).isZero();
+    }
+
+    @Test
+    public void whenNothingPending_thenFlushSkipsDatabase() {
+        viewCountBuffer.flush();
+
+        verify(postRepository, never()).addViewCounts(any());
+    }
+
+    @Test
+    public void whenFlushFails_thenDeltasAreKept() {
+        viewCountBuffer.increment(1L);
+        viewCountBuffer.increment(1L);
+        willThrow(new RuntimeException("db down")).given(postRepository).addViewCounts(any());
+
+        assertThrows(RuntimeException.class, () -> viewCountBuffer.flush());
+
+        assertThat(viewCountBuffer.getPending(1L)).isEqualTo(2);
+    }
+}